@@ -0,0 +1,145 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// LRU cache of all-pairs results keyed by a 64-bit hash of the adjacency matrix.
+// Memory is bounded by the bytes held (the stored input plus its result), and the
+// least recently used results are evicted first. A hash match is confirmed
+// against the stored input before it counts as a hit. Results are handed out as
+// read-only views over the cached array, never copied.
+public class ApspCache {
+    private final ApspSolver solver;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesUsed;
+    private long hits;
+    private long misses;
+
+    public ApspCache(long maxBytes) {
+        this(maxBytes, new ApspSolver());
+    }
+
+    public ApspCache(long maxBytes, ApspSolver solver) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.solver = solver;
+    }
+
+    // For callers that solve elsewhere and only use lookup and store; no solver
+    // (and none of its thread pools) is created, and shortestPaths throws.
+    public static ApspCache withoutSolver(long maxBytes) {
+        return new ApspCache(maxBytes, null);
+    }
+
+    public DistanceMatrix floydWarshall(int[][] graph) {
+        return shortestPaths(BlockedFloydWarshall.flatten(graph), graph.length);
+    }
+
+    // graph is only read; the cache keeps its own copy.
+    public DistanceMatrix shortestPaths(int[] graph, int n) {
+        DistanceMatrix cached = lookup(graph, n);
+        if (cached != null) return cached;
+        if (solver == null) {
+            throw new IllegalStateException("Cache was created without a solver");
+        }
+        return store(graph, n, solver.solve(graph.clone(), n));
+    }
+
+    // The cached result for graph, or null (counted as a miss) if there is none.
+    public DistanceMatrix lookup(int[] graph, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        long hash = contentHash(graph, n);
+        synchronized (this) {
+            Entry entry = entries.get(hash);
+            if (entry != null && entry.n == n && Arrays.equals(entry.graph, graph)) {
+                hits++;
+                return entry.view;
+            }
+            misses++;
+            return null;
+        }
+    }
+
+    // Caches dist, computed elsewhere, as the result for graph. The cache takes
+    // ownership of dist; graph is copied.
+    public DistanceMatrix store(int[] graph, int n, int[] dist) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        BlockedFloydWarshall.checkSize(dist, n);
+        Entry entry = new Entry(graph.clone(), n, new ArrayDistanceMatrix(dist, n).readOnly());
+        if (entry.bytes <= maxBytes) {
+            long hash = contentHash(graph, n);
+            synchronized (this) {
+                Entry previous = entries.put(hash, entry);
+                if (previous != null) bytesUsed -= previous.bytes;
+                bytesUsed += entry.bytes;
+                evict();
+            }
+        }
+        return entry.view;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (bytesUsed > maxBytes && it.hasNext()) {
+            bytesUsed -= it.next().getValue().bytes;
+            it.remove();
+        }
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long bytesUsed() {
+        return bytesUsed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytesUsed = 0;
+    }
+
+    // Two cells per 64-bit multiply-rotate step, finished with the murmur3 fmix64 avalanche.
+    static long contentHash(int[] cells, int n) {
+        long h = 0x9E3779B97F4A7C15L ^ n;
+        int i = 0;
+        for (; i + 1 < cells.length; i += 2) {
+            long v = ((long) cells[i] << 32) | (cells[i + 1] & 0xFFFFFFFFL);
+            h = Long.rotateLeft(h ^ (v * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B97F4A7C15L;
+        }
+        if (i < cells.length) {
+            h = Long.rotateLeft(h ^ (cells[i] * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B97F4A7C15L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Entry {
+        final int[] graph;
+        final int n;
+        final DistanceMatrix view;
+        final long bytes;
+
+        Entry(int[] graph, int n, DistanceMatrix view) {
+            this.graph = graph;
+            this.n = n;
+            this.view = view;
+            this.bytes = 8L * graph.length;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Headless batch entry point: solves every input graph in one JVM so the JIT
+// stays warm across thousands of files.
+//
+//   java ApspCli [--engine=auto|blocked|parallel|sparse|symmetric|components|reference]
+//                [--threads=N] [--tile=N] [--out=DIR] [--format=text|binary|binary-compressed]
+//                [--input=auto|matrix|edges|dimacs] [--inputs-from=LIST] [FILE | -]...
+//
+// With no files, or "-", one graph is read from stdin. Input files in the
+// MatrixFile binary format are recognised by their magic number; with
+// --input=auto, *.gr files are DIMACS, *.edges and *.el files are edge lists,
+// and anything else is a text matrix. Edge inputs solved by the sparse or auto
+// engine go straight to CSR without a dense adjacency matrix. Results go to
+// stdout, or to DIR/<input name>.apsp when --out is given; the binary formats
+// need --out, and two inputs with the same file name are refused up front.
+// --engine=symmetric treats every graph as undirected (an edge given in either
+// direction is usable both ways) and solves it over the packed upper triangle.
+// --engine=components solves each connected component separately and in
+// parallel, for graphs made of many disjoint pieces. Timings are reported on
+// stderr, followed by the ApspMetrics totals when run with -Dapsp.metrics=true.
+public class ApspCli {
+    private String engine = "auto";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int tile = BlockedFloydWarshall.DEFAULT_TILE_SIZE;
+    private Path outDir;
+    private String format = "text";
+    private String inputFormat = "auto";
+    private final List<String> inputs = new ArrayList<>();
+
+    private BlockedFloydWarshall dense;
+    private SparseApsp sparse;
+    private ApspSolver solver;
+    private SymmetricFloydWarshall symmetric;
+    private ComponentApsp components;
+    private BSCS2_RODRIGO_fw reference;
+
+    public static void main(String[] args) {
+        ApspCli cli = new ApspCli();
+        try {
+            cli.parseArgs(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ApspCli [--engine=auto|blocked|parallel|sparse|symmetric|components|reference] "
+                    + "[--threads=N] [--tile=N] [--out=DIR] [--format=text|binary|binary-compressed] [--input=auto|matrix|edges|dimacs] "
+                    + "[--inputs-from=LIST] [FILE | -]...");
+            System.exit(2);
+        }
+        System.exit(cli.run());
+    }
+
+    void parseArgs(String[] args) throws IOException {
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                engine = arg.substring("--engine=".length());
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--tile=")) {
+                tile = Integer.parseInt(arg.substring("--tile=".length()));
+            } else if (arg.startsWith("--out=")) {
+                outDir = Paths.get(arg.substring("--out=".length()));
+            } else if (arg.startsWith("--format=")) {
+                format = arg.substring("--format=".length());
+            } else if (arg.startsWith("--input=")) {
+                inputFormat = arg.substring("--input=".length());
+            } else if (arg.startsWith("--inputs-from=")) {
+                for (String line : Files.readAllLines(Paths.get(arg.substring("--inputs-from=".length())))) {
+                    if (!line.isBlank()) inputs.add(line.trim());
+                }
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("-");
+        }
+        if (!format.equals("text") && !format.equals("binary") && !format.equals("binary-compressed")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        if (!inputFormat.matches("auto|matrix|edges|dimacs")) {
+            throw new IllegalArgumentException("Unknown input format: " + inputFormat);
+        }
+        if (!format.equals("text") && outDir == null) {
+            throw new IllegalArgumentException("--format=" + format + " needs --out");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be positive");
+        }
+        switch (engine) {
+            case "auto":
+                solver = new ApspSolver(new ParallelFloydWarshall(tile, threads), new SparseApsp(threads));
+                break;
+            case "blocked":
+                dense = new BlockedFloydWarshall(tile);
+                break;
+            case "parallel":
+                dense = new ParallelFloydWarshall(tile, threads);
+                break;
+            case "sparse":
+                sparse = new SparseApsp(threads);
+                break;
+            case "symmetric":
+                symmetric = new SymmetricFloydWarshall(tile, MinPlusKernel.best());
+                break;
+            case "components":
+                components = new ComponentApsp(threads);
+                break;
+            case "reference":
+                reference = new BSCS2_RODRIGO_fw();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+        if (outDir != null) {
+            checkOutputNames();
+            Files.createDirectories(outDir);
+        }
+    }
+
+    // Returns the process exit code: 0 when every graph was solved, 1 otherwise.
+    int run() {
+        int failures = 0;
+        Writer stdout = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        for (String input : inputs) {
+            try {
+                long start = System.nanoTime();
+                GraphReader.Format edges = edgeFormat(input);
+                int n;
+                int[] dist;
+                long loaded;
+                if (edges != null && (solver != null || sparse != null)) {
+                    CsrGraph graph;
+                    try (ReadableByteChannel in = channel(input)) {
+                        graph = GraphReader.readCsr(in, edges);
+                    }
+                    n = graph.size();
+                    loaded = System.nanoTime();
+                    dist = solver != null ? solver.solve(graph) : sparse.shortestPaths(graph);
+                } else {
+                    ArrayDistanceMatrix graph = load(input, edges);
+                    n = graph.size();
+                    loaded = System.nanoTime();
+                    dist = solve(graph.cells(), n);
+                }
+                long solved = System.nanoTime();
+                if (outDir == null) {
+                    MatrixText.write(stdout, dist, n);
+                    stdout.write('\n');
+                    stdout.flush();
+                } else if (format.equals("text")) {
+                    try (Writer out = Files.newBufferedWriter(outDir.resolve(outputName(input)), StandardCharsets.UTF_8)) {
+                        MatrixText.write(out, dist, n);
+                    }
+                } else {
+                    MatrixFile.write(outDir.resolve(outputName(input)), new ArrayDistanceMatrix(dist, n),
+                            format.equals("binary-compressed"));
+                }
+                long written = System.nanoTime();
+                System.err.printf("%s: n=%d load=%dms solve=%dms write=%dms%n", input, n,
+                        (loaded - start) / 1_000_000, (solved - loaded) / 1_000_000, (written - solved) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                failures++;
+                System.err.println(input + ": " + e);
+            }
+        }
+        shutdown();
+        if (ApspMetrics.ENABLED) {
+            System.err.println(ApspMetrics.get());
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    int[] solve(int[] graph, int n) {
+        if (solver != null) return solver.solve(graph, n);
+        if (sparse != null) return sparse.shortestPaths(CsrGraph.fromMatrix(graph, n));
+        if (reference != null) {
+            return BlockedFloydWarshall.flatten(reference.floydWarshall(BlockedFloydWarshall.toMatrix(graph, n)));
+        }
+        if (symmetric != null) {
+            SymmetricDistanceMatrix m = SymmetricDistanceMatrix.of(graph, n);
+            symmetric.floydWarshall(m);
+            m.readRows(0, n, graph, 0);
+            return graph;
+        }
+        if (components != null) {
+            components.floydWarshall(graph, n).readRows(0, n, graph, 0);
+            return graph;
+        }
+        dense.floydWarshall(graph, n);
+        return graph;
+    }
+
+    // Edge-list format of an input, or null for matrices (text or binary).
+    private GraphReader.Format edgeFormat(String input) throws IOException {
+        switch (inputFormat) {
+            case "dimacs":
+                return GraphReader.Format.DIMACS;
+            case "edges":
+                return GraphReader.Format.EDGE_LIST;
+            case "matrix":
+                return null;
+            default:
+                if (input.equals("-") || MatrixFile.isMatrixFile(Paths.get(input))) return null;
+                if (input.endsWith(".gr")) return GraphReader.Format.DIMACS;
+                if (input.endsWith(".edges") || input.endsWith(".el")) return GraphReader.Format.EDGE_LIST;
+                return null;
+        }
+    }
+
+    private static ArrayDistanceMatrix load(String input, GraphReader.Format edges) throws IOException {
+        if (edges != null) {
+            try (ReadableByteChannel in = channel(input)) {
+                return GraphReader.readMatrix(in, edges);
+            }
+        }
+        if (input.equals("-")) {
+            return MatrixText.read(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        Path file = Paths.get(input);
+        if (MatrixFile.isMatrixFile(file)) {
+            return MatrixFile.read(file);
+        }
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return MatrixText.read(in);
+        }
+    }
+
+    private static ReadableByteChannel channel(String input) throws IOException {
+        if (input.equals("-")) {
+            return Channels.newChannel(System.in);
+        }
+        return FileChannel.open(Paths.get(input), StandardOpenOption.READ);
+    }
+
+    // Outputs are named after the input's file name alone, so a/g.txt and b/g.txt
+    // would both write g.txt.apsp and the second would overwrite the first.
+    private void checkOutputNames() {
+        Map<String, String> owners = new HashMap<>();
+        for (String input : inputs) {
+            String previous = owners.putIfAbsent(outputName(input), input);
+            if (previous != null) {
+                throw new IllegalArgumentException("Inputs " + previous + " and " + input + " would both write "
+                        + outDir.resolve(outputName(input)));
+            }
+        }
+    }
+
+    private static String outputName(String input) {
+        return (input.equals("-") ? "stdin" : Paths.get(input).getFileName().toString()) + ".apsp";
+    }
+
+    private void shutdown() {
+        if (solver != null) solver.shutdown();
+        if (sparse != null) sparse.shutdown();
+        if (components != null) components.shutdown();
+        if (dense instanceof ParallelFloydWarshall) ((ParallelFloydWarshall) dense).shutdown();
+    }
+}
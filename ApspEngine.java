@@ -0,0 +1,7 @@
+// Common shape of the Floyd-Warshall engines: an n x n row-major matrix of one
+// primitive weight type, relaxed in place. A is that array type (int[], short[],
+// long[], float[] or double[]), so the type is fixed per engine and the hot loops
+// never box.
+public interface ApspEngine<A> {
+    void floydWarshall(A dist, int n);
+}
@@ -0,0 +1,136 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide counters for the engines, off unless -Dapsp.metrics=true. ENABLED
+// is a static final, so with metrics off the JIT folds every guarded update
+// away and the hot loops run as before. A cell update is one min-plus step
+// d[i][j] = min(d[i][j], d[i][k] + d[k][j]) actually attempted; rows skipped
+// because d[i][k] is INF are counted separately, and a relaxation is a step
+// that lowered the cell. Engines add these up locally and report them once per
+// tile or strip, from inside an ApspRunEvent, so every counted cell belongs to
+// a counted run.
+public final class ApspMetrics implements ApspMetricsMBean {
+    public static final boolean ENABLED = Boolean.getBoolean("apsp.metrics");
+
+    private static final ApspMetrics INSTANCE = new ApspMetrics();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder cellUpdates = new LongAdder();
+    private final LongAdder relaxations = new LongAdder();
+    private final LongAdder skippedInfRows = new LongAdder();
+    private final LongAdder solveNanos = new LongAdder();
+    private final LongAdder copyInNanos = new LongAdder();
+    private final LongAdder copyOutNanos = new LongAdder();
+    private final LongAdder outputNanos = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("apsp:type=Metrics"));
+            } catch (JMException e) {
+                System.err.println("Could not register APSP metrics MBean: " + e);
+            }
+        }
+    }
+
+    private ApspMetrics() {
+    }
+
+    // The live counters; all zero when metrics are off.
+    public static ApspMetrics get() {
+        return INSTANCE;
+    }
+
+    static void tile(long attempted, long skippedRows, long relaxed) {
+        INSTANCE.cellUpdates.add(attempted);
+        if (skippedRows != 0) INSTANCE.skippedInfRows.add(skippedRows);
+        if (relaxed != 0) INSTANCE.relaxations.add(relaxed);
+    }
+
+    static void run(long nanos) {
+        INSTANCE.runs.increment();
+        INSTANCE.solveNanos.add(nanos);
+    }
+
+    static void phase(String phase, long nanos) {
+        switch (phase) {
+            case ApspPhaseEvent.COPY_IN:
+                INSTANCE.copyInNanos.add(nanos);
+                break;
+            case ApspPhaseEvent.COPY_OUT:
+                INSTANCE.copyOutNanos.add(nanos);
+                break;
+            default:
+                INSTANCE.outputNanos.add(nanos);
+                break;
+        }
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getCellUpdates() {
+        return cellUpdates.sum();
+    }
+
+    @Override
+    public long getRelaxations() {
+        return relaxations.sum();
+    }
+
+    @Override
+    public long getSkippedInfRows() {
+        return skippedInfRows.sum();
+    }
+
+    @Override
+    public long getSolveMillis() {
+        return solveNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getCopyInMillis() {
+        return copyInNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getCopyOutMillis() {
+        return copyOutNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getOutputMillis() {
+        return outputNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public double getCellUpdatesPerSecond() {
+        long nanos = solveNanos.sum();
+        return nanos == 0 ? 0 : cellUpdates.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public void reset() {
+        runs.reset();
+        cellUpdates.reset();
+        relaxations.reset();
+        skippedInfRows.reset();
+        solveNanos.reset();
+        copyInNanos.reset();
+        copyOutNanos.reset();
+        outputNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("runs=%d solve=%dms copy-in=%dms copy-out=%dms output=%dms cells=%d (%.3g/s) "
+                        + "relaxations=%d skipped-inf-rows=%d",
+                getRuns(), getSolveMillis(), getCopyInMillis(), getCopyOutMillis(), getOutputMillis(),
+                getCellUpdates(), getCellUpdatesPerSecond(), getRelaxations(), getSkippedInfRows());
+    }
+}
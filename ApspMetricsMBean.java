@@ -0,0 +1,23 @@
+// JMX view of ApspMetrics, registered as apsp:type=Metrics when -Dapsp.metrics=true.
+public interface ApspMetricsMBean {
+    long getRuns();
+
+    long getCellUpdates();
+
+    long getRelaxations();
+
+    long getSkippedInfRows();
+
+    long getSolveMillis();
+
+    long getCopyInMillis();
+
+    long getCopyOutMillis();
+
+    long getOutputMillis();
+
+    // Cell updates per second of solve time.
+    double getCellUpdatesPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event for the work around a run: copying the input in, copying the result
+// out, and formatting it as text. The run itself is an ApspRunEvent.
+@Name("apsp.Phase")
+@Label("APSP Phase")
+@Category("APSP")
+@Description("Copy-in, copy-out or output around an all-pairs run")
+class ApspPhaseEvent extends Event {
+    static final String COPY_IN = "copy-in";
+    static final String COPY_OUT = "copy-out";
+    static final String OUTPUT = "output";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Vertices")
+    int n;
+
+    private transient long started;
+
+    static ApspPhaseEvent start(String phase, int n) {
+        ApspPhaseEvent event = new ApspPhaseEvent();
+        event.phase = phase;
+        event.n = n;
+        if (ApspMetrics.ENABLED) event.started = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    void finish() {
+        end();
+        if (ApspMetrics.ENABLED) ApspMetrics.phase(phase, System.nanoTime() - started);
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event for one round of the blocked engines: pivots [firstPivot, endPivot).
+@Name("apsp.PivotBatch")
+@Label("APSP Pivot Batch")
+@Category("APSP")
+@Description("One round of pivots in a blocked engine")
+class ApspPivotBatchEvent extends Event {
+    @Label("First Pivot")
+    int firstPivot;
+
+    @Label("End Pivot")
+    @Description("Exclusive")
+    int endPivot;
+
+    @Label("Vertices")
+    int n;
+
+    void finish(int firstPivot, int endPivot, int n) {
+        end();
+        if (shouldCommit()) {
+            this.firstPivot = firstPivot;
+            this.endPivot = endPivot;
+            this.n = n;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event spanning one engine run. Like the other APSP events it costs next
+// to nothing unless a recording has apsp.* enabled.
+@Name("apsp.Run")
+@Label("APSP Run")
+@Category("APSP")
+@Description("One all-pairs shortest path run")
+class ApspRunEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Vertices")
+    int n;
+
+    @Label("Tile Size")
+    int tileSize;
+
+    @Label("Completed")
+    @Description("False when a listener stopped the run or a negative cycle was found")
+    boolean completed;
+
+    private transient long started;
+
+    static ApspRunEvent start(String engine, int n, int tileSize) {
+        ApspRunEvent event = new ApspRunEvent();
+        event.engine = engine;
+        event.n = n;
+        event.tileSize = tileSize;
+        if (ApspMetrics.ENABLED) event.started = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    void finish(boolean completed) {
+        end();
+        if (ApspMetrics.ENABLED) ApspMetrics.run(System.nanoTime() - started);
+        if (shouldCommit()) {
+            this.completed = completed;
+            commit();
+        }
+    }
+}
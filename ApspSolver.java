@@ -0,0 +1,67 @@
+// Picks the dense blocked engine or the sparse Dijkstra engine per graph.
+// Dense costs about n^3 cell updates; sparse about n * (n + m) * log n heap work,
+// which is several times slower per step, hence the weighting factor.
+public class ApspSolver {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    private static final int SPARSE_STEP_COST = 8;
+
+    private final BlockedFloydWarshall dense;
+    private final SparseApsp sparse;
+
+    public ApspSolver() {
+        this(new ParallelFloydWarshall(), new SparseApsp());
+    }
+
+    public ApspSolver(BlockedFloydWarshall dense, SparseApsp sparse) {
+        this.dense = dense;
+        this.sparse = sparse;
+    }
+
+    public int[][] floydWarshall(int[][] graph) {
+        int n = graph.length;
+        return BlockedFloydWarshall.toMatrix(solve(BlockedFloydWarshall.flatten(graph), n), n);
+    }
+
+    // Returns the distances; graph may be reused as the result buffer by the dense engine.
+    public int[] solve(int[] graph, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        if (preferSparse(n, countEdges(graph, n))) {
+            return sparse.shortestPaths(CsrGraph.fromMatrix(graph, n));
+        }
+        dense.floydWarshall(graph, n);
+        return graph;
+    }
+
+    public int[] solve(CsrGraph g) {
+        if (preferSparse(g.size(), g.edgeCount())) {
+            return sparse.shortestPaths(g);
+        }
+        int[] dist = g.toMatrix();
+        dense.floydWarshall(dist, g.size());
+        return dist;
+    }
+
+    static boolean preferSparse(int n, long edges) {
+        if (n < 2) return false;
+        int log = 32 - Integer.numberOfLeadingZeros(n - 1);
+        return SPARSE_STEP_COST * (edges + n) * log < (long) n * n;
+    }
+
+    static long countEdges(int[] graph, int n) {
+        long edges = 0;
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                if (j != i && graph[row + j] != INF) edges++;
+            }
+        }
+        return edges;
+    }
+
+    public void shutdown() {
+        if (dense instanceof ParallelFloydWarshall) {
+            ((ParallelFloydWarshall) dense).shutdown();
+        }
+        sparse.shutdown();
+    }
+}
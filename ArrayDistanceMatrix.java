@@ -0,0 +1,82 @@
+// Heap-backed matrix over a flat row-major int[]; the array is used as-is, not copied.
+public class ArrayDistanceMatrix implements DistanceMatrix {
+    private final int[] cells;
+    private final int n;
+
+    public ArrayDistanceMatrix(int[] cells, int n) {
+        BlockedFloydWarshall.checkSize(cells, n);
+        this.cells = cells;
+        this.n = n;
+    }
+
+    public static ArrayDistanceMatrix of(int[][] matrix) {
+        return new ArrayDistanceMatrix(BlockedFloydWarshall.flatten(matrix), matrix.length);
+    }
+
+    public int[] cells() {
+        return cells;
+    }
+
+    // Shares the array with this matrix; every write through the view throws.
+    public DistanceMatrix readOnly() {
+        return new ReadOnlyView(this);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return cells[i * n + j];
+    }
+
+    @Override
+    public void set(int i, int j, int value) {
+        cells[i * n + j] = value;
+    }
+
+    @Override
+    public void readRows(int row, int count, int[] dst, int off) {
+        System.arraycopy(cells, row * n, dst, off, count * n);
+    }
+
+    @Override
+    public void writeRows(int row, int count, int[] src, int off) {
+        System.arraycopy(src, off, cells, row * n, count * n);
+    }
+
+    private static final class ReadOnlyView implements DistanceMatrix {
+        private final ArrayDistanceMatrix matrix;
+
+        ReadOnlyView(ArrayDistanceMatrix matrix) {
+            this.matrix = matrix;
+        }
+
+        @Override
+        public int size() {
+            return matrix.n;
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return matrix.cells[i * matrix.n + j];
+        }
+
+        @Override
+        public void set(int i, int j, int value) {
+            throw new UnsupportedOperationException("Read-only distance matrix");
+        }
+
+        @Override
+        public void readRows(int row, int count, int[] dst, int off) {
+            matrix.readRows(row, count, dst, off);
+        }
+
+        @Override
+        public void writeRows(int row, int count, int[] src, int off) {
+            throw new UnsupportedOperationException("Read-only distance matrix");
+        }
+    }
+}
@@ -5,28 +5,37 @@ public class BSCS2_RODRIGO_fw {
         int n = graph.length;
         int[][] dist = new int[n][n];
         
+        ApspPhaseEvent copyIn = ApspPhaseEvent.start(ApspPhaseEvent.COPY_IN, n);
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 dist[i][j] = graph[i][j];
             }
         }
+        copyIn.finish();
         
+        ApspRunEvent run = ApspRunEvent.start("BSCS2_RODRIGO_fw", n, 1);
         for (int k = 0; k < n; k++) {
+            int improved = 0;
             for (int i = 0; i < n; i++) {
                 for (int j = 0; j < n; j++) {
                     if (dist[i][k] != INF && dist[k][j] != INF && 
                         dist[i][k] + dist[k][j] < dist[i][j]) {
                         dist[i][j] = dist[i][k] + dist[k][j];
+                        if (ApspMetrics.ENABLED) improved++;
                     }
                 }
             }
+            // No row is skipped here: every cell is tested, INF or not.
+            if (ApspMetrics.ENABLED) ApspMetrics.tile((long) n * n, 0, improved);
         }
+        run.finish(true);
         
         return dist;
     }
 
     public String formatMatrix(int[][] matrix) {
         if (matrix == null || matrix.length == 0) return "";
+        ApspPhaseEvent output = ApspPhaseEvent.start(ApspPhaseEvent.OUTPUT, matrix.length);
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < matrix.length; i++) {
             for (int j = 0; j < matrix.length; j++) {
@@ -39,6 +48,7 @@ public class BSCS2_RODRIGO_fw {
             sb.append("\n");
         }
         String result = sb.toString();
+        output.finish();
         System.out.println("Formatted Matrix:\n" + result);
         return result;
     }
@@ -62,6 +72,14 @@ public class BSCS2_RODRIGO_fw {
         return newGraph;
     }
 
+    // Grows an existing result instead of recomputing it: outEdges[j] is the new
+    // node's edge to j and inEdges[i] the edge from i (INF for none).
+    public int[][] addNode(int[][] dist, int[] outEdges, int[] inEdges) {
+        int n = dist.length;
+        int[] grown = new IncrementalApsp().addNode(BlockedFloydWarshall.flatten(dist), n, outEdges, inEdges);
+        return BlockedFloydWarshall.toMatrix(grown, n + 1);
+    }
+
     public int[][] removeLastNode(int[][] graph) {
         int n = graph.length;
         if (n <= 1) return graph;
@@ -77,6 +95,15 @@ public class BSCS2_RODRIGO_fw {
         return newGraph;
     }
 
+    // Shrinks an existing result, recomputing only rows that routed through the removed node.
+    public int[][] removeLastNode(int[][] graph, int[][] dist) {
+        int n = graph.length;
+        if (n <= 1) return dist;
+        int[] shrunk = new IncrementalApsp().removeLastNode(
+            BlockedFloydWarshall.flatten(graph), BlockedFloydWarshall.flatten(dist), n);
+        return BlockedFloydWarshall.toMatrix(shrunk, n - 1);
+    }
+
     public int[][] getDemoGraph() {
         return new int[][] {
             {0, 5, INF, 10},
@@ -0,0 +1,229 @@
+// Cache-blocked Floyd-Warshall over a single row-major int[] (dist[i * n + j]).
+// Each round k runs the diagonal tile first, then the tiles in the pivot row and
+// column, then every remaining tile, so the working set stays inside one tile.
+public class BlockedFloydWarshall implements ApspEngine<int[]> {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final int tileSize;
+    private final MinPlusKernel kernel;
+
+    public BlockedFloydWarshall() {
+        this(DEFAULT_TILE_SIZE);
+    }
+
+    public BlockedFloydWarshall(int tileSize) {
+        this(tileSize, MinPlusKernel.best());
+    }
+
+    public BlockedFloydWarshall(int tileSize, MinPlusKernel kernel) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.kernel = kernel;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public MinPlusKernel getKernel() {
+        return kernel;
+    }
+
+    // Same contract as BSCS2_RODRIGO_fw.floydWarshall: the input is left untouched.
+    public int[][] floydWarshall(int[][] graph) {
+        int n = graph.length;
+        ApspPhaseEvent copyIn = ApspPhaseEvent.start(ApspPhaseEvent.COPY_IN, n);
+        int[] dist = flatten(graph);
+        copyIn.finish();
+        floydWarshall(dist, n);
+        ApspPhaseEvent copyOut = ApspPhaseEvent.start(ApspPhaseEvent.COPY_OUT, n);
+        int[][] result = toMatrix(dist, n);
+        copyOut.finish();
+        return result;
+    }
+
+    // Runs in place over a row-major n x n matrix.
+    @Override
+    public void floydWarshall(int[] dist, int n) {
+        checkSize(dist, n);
+        run(dist, n, null, null);
+    }
+
+    // In place, reporting to listener after every round of tileSize pivots.
+    // Returns false if the listener stopped the run; dist then holds a partial result.
+    public boolean floydWarshall(int[] dist, int n, PivotListener listener) {
+        checkSize(dist, n);
+        return run(dist, n, null, listener);
+    }
+
+    // Distances plus the successor matrix, filled during the same relaxation pass.
+    public ShortestPaths shortestPaths(int[][] graph) {
+        return shortestPaths(flatten(graph), graph.length);
+    }
+
+    // Runs in place over dist, which must still hold the adjacency matrix. A copy of
+    // it is kept so a reported negative cycle can be checked against real weights.
+    public ShortestPaths shortestPaths(int[] dist, int n) {
+        checkSize(dist, n);
+        int[] weights = dist.clone();
+        NextHopMatrix next = NextHopMatrix.fromGraph(dist, n);
+        try {
+            run(dist, n, next, null);
+        } catch (NegativeCycleException e) {
+            int[] cycle = next.negativeCycle(weights, e.vertex(), e.cycle());
+            throw new NegativeCycleException(cycle.length > 0 ? cycle[0] : e.vertex(), cycle);
+        }
+        return new ShortestPaths(dist, n, next);
+    }
+
+    // Every engine run goes through here, wrapped in an ApspRunEvent.
+    final boolean run(int[] dist, int n, NextHopMatrix next, PivotListener listener) {
+        ApspRunEvent event = ApspRunEvent.start(getClass().getSimpleName(), n, tileSize);
+        boolean completed = false;
+        try {
+            completed = rounds(dist, n, next, listener);
+            return completed;
+        } finally {
+            event.finish(completed);
+        }
+    }
+
+    boolean rounds(int[] dist, int n, NextHopMatrix next, PivotListener listener) {
+        checkDiagonal(dist, n, next);
+        int blocks = blockCount(n);
+        for (int kb = 0; kb < blocks; kb++) {
+            int k0 = kb * tileSize;
+            int k1 = Math.min(k0 + tileSize, n);
+            ApspPivotBatchEvent batch = new ApspPivotBatchEvent();
+            batch.begin();
+
+            relax(dist, next, n, k0, k1, k0, k1, k0, k1);
+
+            for (int b = 0; b < blocks; b++) {
+                if (b == kb) continue;
+                int b0 = b * tileSize;
+                int b1 = Math.min(b0 + tileSize, n);
+                relax(dist, next, n, k0, k1, k0, k1, b0, b1); // pivot row
+                relax(dist, next, n, k0, k1, b0, b1, k0, k1); // pivot column
+            }
+
+            for (int ib = 0; ib < blocks; ib++) {
+                if (ib == kb) continue;
+                int i0 = ib * tileSize;
+                int i1 = Math.min(i0 + tileSize, n);
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb == kb) continue;
+                    int j0 = jb * tileSize;
+                    relax(dist, next, n, k0, k1, i0, i1, j0, Math.min(j0 + tileSize, n));
+                }
+            }
+
+            checkDiagonal(dist, n, next);
+            batch.finish(k0, k1, n);
+            if (listener != null && !listener.pivotsDone(k1, n, dist)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int blockCount(int n) {
+        return (n + tileSize - 1) / tileSize;
+    }
+
+    // Relaxes rows [i0, i1) x columns [j0, j1) through pivots [k0, k1).
+    void relax(int[] d, NextHopMatrix next, int n, int k0, int k1, int i0, int i1, int j0, int j1) {
+        if (next != null) {
+            relaxTracked(d, next, n, k0, k1, i0, i1, j0, j1);
+            return;
+        }
+        int skipped = 0;
+        int improved = 0;
+        for (int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for (int i = i0; i < i1; i++) {
+                int iRow = i * n;
+                int dik = d[iRow + k];
+                if (dik == INF) {
+                    if (ApspMetrics.ENABLED) skipped++;
+                    continue;
+                }
+                improved += kernel.relaxRow(d, iRow, kRow, dik, j0, j1);
+            }
+        }
+        if (ApspMetrics.ENABLED) countTile(k0, k1, i0, i1, j0, j1, skipped, improved);
+    }
+
+    static void countTile(int k0, int k1, int i0, int i1, int j0, int j1, int skipped, int improved) {
+        ApspMetrics.tile(((long) (k1 - k0) * (i1 - i0) - skipped) * (j1 - j0), skipped, improved);
+    }
+
+    // Scalar variant that also records next[i][j] = next[i][k] on every improvement.
+    private static void relaxTracked(int[] d, NextHopMatrix next, int n, int k0, int k1, int i0, int i1, int j0, int j1) {
+        int skipped = 0;
+        int improved = 0;
+        for (int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for (int i = i0; i < i1; i++) {
+                int iRow = i * n;
+                int dik = d[iRow + k];
+                if (dik == INF) {
+                    if (ApspMetrics.ENABLED) skipped++;
+                    continue;
+                }
+                int hop = next.get(i, k);
+                for (int j = j0; j < j1; j++) {
+                    int dkj = d[kRow + j];
+                    if (dkj != INF && dik + dkj < d[iRow + j]) {
+                        d[iRow + j] = dik + dkj;
+                        next.set(i, j, hop);
+                        if (ApspMetrics.ENABLED) improved++;
+                        if (j == i && d[iRow + j] < 0) {
+                            // Only a candidate walk; shortestPaths checks it against the input weights.
+                            throw new NegativeCycleException(i, next.cycleThrough(i, k));
+                        }
+                    }
+                }
+            }
+        }
+        if (ApspMetrics.ENABLED) countTile(k0, k1, i0, i1, j0, j1, skipped, improved);
+    }
+
+    // Checked before the first round and after every round: a negative diagonal cell
+    // means a negative cycle, and further rounds would only push values towards
+    // overflow. With successors tracked, relaxTracked throws as soon as the cycle
+    // closes, so here a negative cell can only be a negative self-loop.
+    static void checkDiagonal(int[] dist, int n, NextHopMatrix next) {
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) {
+                throw new NegativeCycleException(i, next != null ? new int[] {i} : new int[0]);
+            }
+        }
+    }
+
+    static void checkSize(int[] dist, int n) {
+        if (n < 0 || dist.length != n * n) {
+            throw new IllegalArgumentException("Expected " + n + "x" + n + " cells but got " + dist.length);
+        }
+    }
+
+    public static int[] flatten(int[][] matrix) {
+        int n = matrix.length;
+        int[] flat = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix[i], 0, flat, i * n, n);
+        }
+        return flat;
+    }
+
+    public static int[][] toMatrix(int[] flat, int n) {
+        int[][] matrix = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(flat, i * n, matrix[i], 0, n);
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Splits the graph into connected components with union-find over its edges and
+// runs Floyd-Warshall on each component on its own, in parallel on a ForkJoinPool.
+// Edges are joined regardless of direction: no path leaves a weakly connected
+// component, so directed graphs split the same way. The work drops from n^3 to
+// the sum of the cubed component sizes, and the result is a block-diagonal
+// ComponentDistanceMatrix that never stores the INF cells between components.
+public class ComponentApsp {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    private final BlockedFloydWarshall engine;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    public ComponentApsp() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ComponentApsp(int parallelism) {
+        this.engine = new BlockedFloydWarshall();
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+    }
+
+    // engine is shared by every component task, so it must not be a ParallelFloydWarshall
+    // running on the same pool.
+    public ComponentApsp(BlockedFloydWarshall engine, ForkJoinPool pool) {
+        this.engine = engine;
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    public int[][] floydWarshall(int[][] graph) {
+        int n = graph.length;
+        ComponentDistanceMatrix m = floydWarshall(BlockedFloydWarshall.flatten(graph), n);
+        int[] dist = new int[n * n];
+        m.readRows(0, n, dist, 0);
+        return BlockedFloydWarshall.toMatrix(dist, n);
+    }
+
+    // The input is left untouched.
+    public ComponentDistanceMatrix floydWarshall(int[] graph, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        int[] component = new int[n];
+        int count = components(graph, n, component);
+        ComponentDistanceMatrix m = new ComponentDistanceMatrix(component, count);
+        Integer[] order = new Integer[count];
+        for (int c = 0; c < count; c++) {
+            order[c] = c;
+        }
+        // Largest first, so a big component is not the last task to start.
+        Arrays.sort(order, (a, b) -> Integer.compare(m.componentSize(b), m.componentSize(a)));
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+                for (int c : order) {
+                    tasks.add(ForkJoinTask.adapt(() -> solve(graph, n, m, c)));
+                }
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+        return m;
+    }
+
+    private void solve(int[] graph, int n, ComponentDistanceMatrix m, int c) {
+        int[] members = m.members(c);
+        int size = members.length;
+        int[] block = m.block(c);
+        for (int x = 0; x < size; x++) {
+            int row = members[x] * n;
+            for (int y = 0; y < size; y++) {
+                block[x * size + y] = graph[row + members[y]];
+            }
+        }
+        try {
+            engine.floydWarshall(block, size);
+        } catch (NegativeCycleException e) {
+            int[] cycle = e.cycle();
+            for (int i = 0; i < cycle.length; i++) {
+                cycle[i] = members[cycle[i]];
+            }
+            throw new NegativeCycleException(members[e.vertex()], cycle);
+        }
+    }
+
+    // Labels component[v] with ids numbered by each component's smallest vertex;
+    // returns the number of components.
+    static int components(int[] graph, int n, int[] component) {
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+        }
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                if (j != i && graph[row + j] != INF) {
+                    union(parent, i, j);
+                }
+            }
+        }
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int root = find(parent, v);
+            component[v] = root == v ? count++ : component[root];
+        }
+        return count;
+    }
+
+    // Path halving.
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    // The smaller root always becomes the parent, so a root is its set's smallest vertex.
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra < rb) {
+            parent[rb] = ra;
+        } else if (rb < ra) {
+            parent[ra] = rb;
+        }
+    }
+
+    // Only shuts down a pool this instance created itself.
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+}
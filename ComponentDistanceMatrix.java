@@ -0,0 +1,113 @@
+import java.util.Arrays;
+
+// Block-diagonal distance matrix: one dense block per connected component, in the
+// local order of members(c). Pairs in different components are INF and are not
+// stored, so the cells add up to the sum of the squared component sizes.
+public class ComponentDistanceMatrix implements DistanceMatrix {
+    private final int n;
+    private final int[] component;
+    private final int[] local;
+    private final int[][] members;
+    private final int[][] blocks;
+
+    // component[v] is v's component id in [0, count); every block starts at INF.
+    public ComponentDistanceMatrix(int[] component, int count) {
+        this.n = component.length;
+        this.component = component.clone();
+        this.local = new int[n];
+        int[] sizes = new int[count];
+        for (int v = 0; v < n; v++) {
+            int c = component[v];
+            if (c < 0 || c >= count) {
+                throw new IllegalArgumentException("Component id out of range: " + c);
+            }
+            local[v] = sizes[c]++;
+        }
+        this.members = new int[count][];
+        this.blocks = new int[count][];
+        for (int c = 0; c < count; c++) {
+            if ((long) sizes[c] * sizes[c] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Component too large: " + sizes[c]);
+            }
+            members[c] = new int[sizes[c]];
+            blocks[c] = new int[sizes[c] * sizes[c]];
+            Arrays.fill(blocks[c], INF);
+        }
+        for (int v = 0; v < n; v++) {
+            members[component[v]][local[v]] = v;
+        }
+    }
+
+    public int componentCount() {
+        return members.length;
+    }
+
+    public int component(int v) {
+        return component[v];
+    }
+
+    // Vertices of component c in ascending order.
+    public int[] members(int c) {
+        return members[c].clone();
+    }
+
+    // Row-major block of component c, indexed by position in members(c); used as-is.
+    int[] block(int c) {
+        return blocks[c];
+    }
+
+    int componentSize(int c) {
+        return members[c].length;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        int c = component[i];
+        if (c != component[j]) return INF;
+        return blocks[c][local[i] * members[c].length + local[j]];
+    }
+
+    // Cross-component cells can only hold INF.
+    @Override
+    public void set(int i, int j, int value) {
+        int c = component[i];
+        if (c != component[j]) {
+            if (value != INF) {
+                throw new IllegalArgumentException("Vertices " + i + " and " + j + " are in different components");
+            }
+            return;
+        }
+        blocks[c][local[i] * members[c].length + local[j]] = value;
+    }
+
+    @Override
+    public void readRows(int row, int count, int[] dst, int off) {
+        Arrays.fill(dst, off, off + count * n, INF);
+        for (int r = row; r < row + count; r++) {
+            int c = component[r];
+            int[] block = blocks[c];
+            int[] m = members[c];
+            int in = local[r] * m.length;
+            int out = off + (r - row) * n;
+            for (int x = 0; x < m.length; x++) {
+                dst[out + m[x]] = block[in + x];
+            }
+        }
+    }
+
+    // Cross-component cells of src must be INF, as with set.
+    @Override
+    public void writeRows(int row, int count, int[] src, int off) {
+        for (int r = row; r < row + count; r++) {
+            int in = off + (r - row) * n;
+            for (int j = 0; j < n; j++) {
+                set(r, j, src[in + j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+// Compressed-sparse-row adjacency: the out-edges of v are targets/weights in
+// [offsets[v], offsets[v + 1]). Self-loops are kept apart in selfLoops so the
+// diagonal can follow the dense matrix's meaning (0 unless a loop says otherwise).
+public class CsrGraph {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    final int n;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+    final int[] selfLoops;
+
+    CsrGraph(int n, int[] offsets, int[] targets, int[] weights, int[] selfLoops) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.selfLoops = selfLoops;
+    }
+
+    public static CsrGraph fromMatrix(int[][] graph) {
+        return fromMatrix(BlockedFloydWarshall.flatten(graph), graph.length);
+    }
+
+    // Every non-INF off-diagonal cell becomes an edge; the diagonal becomes selfLoops.
+    public static CsrGraph fromMatrix(int[] graph, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            int degree = 0;
+            for (int j = 0; j < n; j++) {
+                if (j != i && graph[row + j] != INF) degree++;
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        int[] selfLoops = new int[n];
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            int e = offsets[i];
+            for (int j = 0; j < n; j++) {
+                int w = graph[row + j];
+                if (j == i) {
+                    selfLoops[i] = w;
+                } else if (w != INF) {
+                    targets[e] = j;
+                    weights[e++] = w;
+                }
+            }
+        }
+        return new CsrGraph(n, offsets, targets, weights, selfLoops);
+    }
+
+    // Builds from the first m entries of parallel edge arrays (counting sort by source).
+    // The diagonal starts at 0 as in BSCS2_RODRIGO_fw.addNode; a self-loop edge can lower it.
+    public static CsrGraph fromEdges(int n, int[] from, int[] to, int[] weight, int m) {
+        int[] offsets = new int[n + 1];
+        int[] selfLoops = new int[n];
+        for (int e = 0; e < m; e++) {
+            if (from[e] != to[e]) {
+                offsets[from[e] + 1]++;
+            } else if (weight[e] < selfLoops[from[e]]) {
+                selfLoops[from[e]] = weight[e];
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int e = 0; e < m; e++) {
+            if (from[e] == to[e]) continue;
+            int slot = fill[from[e]]++;
+            targets[slot] = to[e];
+            weights[slot] = weight[e];
+        }
+        return new CsrGraph(n, offsets, targets, weights, selfLoops);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int edgeCount() {
+        return offsets[n];
+    }
+
+    public boolean hasNegativeWeight() {
+        for (int w : weights) {
+            if (w < 0) return true;
+        }
+        for (int w : selfLoops) {
+            if (w < 0) return true;
+        }
+        return false;
+    }
+
+    // Dense row-major adjacency; parallel edges keep the lightest weight.
+    public int[] toMatrix() {
+        int[] graph = new int[n * n];
+        Arrays.fill(graph, INF);
+        for (int v = 0; v < n; v++) {
+            int row = v * n;
+            graph[row + v] = selfLoops[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (weights[e] < graph[row + targets[e]]) {
+                    graph[row + targets[e]] = weights[e];
+                }
+            }
+        }
+        return graph;
+    }
+}
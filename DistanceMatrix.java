@@ -0,0 +1,17 @@
+// Square row-major distance matrix, either on the heap or in a mapped file.
+// Row-range copies let the out-of-core engine move whole strips at a time.
+public interface DistanceMatrix {
+    int INF = Integer.MAX_VALUE / 2;
+
+    int size();
+
+    int get(int i, int j);
+
+    void set(int i, int j, int value);
+
+    // Copies rows [row, row + count) into dst starting at off.
+    void readRows(int row, int count, int[] dst, int off);
+
+    // Overwrites rows [row, row + count) from src starting at off.
+    void writeRows(int row, int count, int[] src, int off);
+}
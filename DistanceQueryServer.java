@@ -0,0 +1,232 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Line-based TCP server answering distance and path queries from the current
+// ShortestPaths snapshot. A new result is published by swapping an
+// AtomicReference, so readers never lock and never see a half-written matrix.
+// Each request line reads the reference once, so every answer on a line comes
+// from the same snapshot.
+//
+//   N                    -> n
+//   D u v [u v]...       -> one distance per pair, INF when unreachable
+//   P u v [u v]...       -> the vertices of each path, paths separated by ";",
+//                           "-" when unreachable
+//   QUIT                 -> closes the connection
+//
+// Anything else gets "ERR <reason>". Responses are flushed once the client has
+// no more requests buffered, so pipelined batches go out together. Connections
+// run on virtual threads when the JVM has them, else on a cached thread pool.
+public class DistanceQueryServer implements Closeable {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    private final AtomicReference<ShortestPaths> snapshot = new AtomicReference<>();
+    private final ServerSocket server;
+    private final ExecutorService connections = connectionExecutor();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    // Binds to the loopback address; port 0 picks a free port.
+    public DistanceQueryServer(int port) throws IOException {
+        this(new ServerSocket(port, 50, InetAddress.getLoopbackAddress()));
+    }
+
+    public DistanceQueryServer(ServerSocket server) {
+        this.server = server;
+        this.acceptor = new Thread(this::acceptLoop, "apsp-query-accept");
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public void start() {
+        acceptor.start();
+    }
+
+    // The server takes ownership of paths; it must not be modified afterwards.
+    public void publish(ShortestPaths paths) {
+        snapshot.set(paths);
+    }
+
+    // Solves a copy of graph on the calling thread and publishes the result.
+    // Queries keep being answered from the previous snapshot until then.
+    public void recompute(BlockedFloydWarshall engine, int[] graph, int n) {
+        publish(engine.shortestPaths(graph.clone(), n));
+    }
+
+    // Null until the first publish.
+    public ShortestPaths snapshot() {
+        return snapshot.get();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                open.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                return; // closed
+            } catch (IOException e) {
+                System.err.println("Query server accept failed: " + e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                response.setLength(0);
+                if (!answer(line, response)) break;
+                out.append(response).append('\n');
+                if (!in.ready()) out.flush();
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Client went away; nothing to answer.
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    // Appends the response to one request line; false for QUIT.
+    boolean answer(String line, StringBuilder out) {
+        String[] tokens = line.trim().split("\\s+");
+        String command = tokens[0].toUpperCase();
+        if (command.equals("QUIT")) return false;
+        ShortestPaths paths = snapshot.get();
+        if (paths == null) {
+            out.append("ERR no result published yet");
+            return true;
+        }
+        int n = paths.size();
+        if (command.equals("N") && tokens.length == 1) {
+            out.append(n);
+            return true;
+        }
+        if (!command.equals("D") && !command.equals("P")) {
+            out.append("ERR unknown command: ").append(tokens[0]);
+            return true;
+        }
+        if (tokens.length < 3 || tokens.length % 2 == 0) {
+            out.append("ERR expected vertex pairs after ").append(command);
+            return true;
+        }
+        int[] pairs = new int[tokens.length - 1];
+        for (int t = 1; t < tokens.length; t++) {
+            int v;
+            try {
+                v = Integer.parseInt(tokens[t]);
+            } catch (NumberFormatException e) {
+                out.append("ERR not a vertex: ").append(tokens[t]);
+                return true;
+            }
+            if (v < 0 || v >= n) {
+                out.append("ERR vertex out of range: ").append(v);
+                return true;
+            }
+            pairs[t - 1] = v;
+        }
+        for (int p = 0; p < pairs.length; p += 2) {
+            int u = pairs[p];
+            int v = pairs[p + 1];
+            if (command.equals("D")) {
+                if (p > 0) out.append(' ');
+                int d = paths.distance(u, v);
+                if (d == INF) {
+                    out.append("INF");
+                } else {
+                    out.append(d);
+                }
+            } else {
+                if (p > 0) out.append(';');
+                ShortestPaths.PathIterator it = paths.path(u, v);
+                if (!it.hasNext()) {
+                    out.append('-');
+                }
+                try {
+                    for (boolean first = true; it.hasNext(); first = false) {
+                        if (!first) out.append(' ');
+                        out.append(it.nextInt());
+                    }
+                } catch (IllegalStateException e) {
+                    out.setLength(0);
+                    out.append("ERR ").append(e.getMessage());
+                    return true;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Stops accepting, drops open connections and keeps the current snapshot.
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Socket socket : open) {
+            socket.close();
+        }
+        connections.shutdownNow();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() only exists from Java 21, so it
+    // is looked up reflectively to keep the build on older JDKs.
+    private static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread t = new Thread(task, "apsp-query");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    //   java DistanceQueryServer PORT FILE
+    // Solves FILE (a text or binary matrix) and serves it until the JVM is stopped.
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DistanceQueryServer PORT FILE");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        ArrayDistanceMatrix graph;
+        if (MatrixFile.isMatrixFile(file)) {
+            graph = MatrixFile.read(file);
+        } else {
+            try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                graph = MatrixText.read(in);
+            }
+        }
+        ParallelFloydWarshall engine = new ParallelFloydWarshall();
+        DistanceQueryServer server = new DistanceQueryServer(Integer.parseInt(args[0]));
+        server.recompute(engine, graph.cells(), graph.size());
+        engine.shutdown();
+        server.start();
+        System.err.println("Serving n=" + graph.size() + " on port " + server.getPort());
+    }
+}
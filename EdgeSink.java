@@ -0,0 +1,7 @@
+// Receives a graph as GraphReader streams it. begin is called once the vertex
+// count is known (DIMACS "p" line); plain edge lists never call it.
+public interface EdgeSink {
+    void begin(int n, long m);
+
+    void edge(int u, int v, int weight);
+}
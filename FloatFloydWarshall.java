@@ -0,0 +1,54 @@
+// Floyd-Warshall over float weights for fractional costs. INF is positive
+// infinity, which IEEE addition already saturates: INF plus any finite weight
+// stays INF and never beats a cell, so no sentinel check is needed per cell.
+public class FloatFloydWarshall extends TypedFloydWarshall<float[]> {
+    public static final float INF = Float.POSITIVE_INFINITY;
+
+    public FloatFloydWarshall() {
+        this(BlockedFloydWarshall.DEFAULT_TILE_SIZE);
+    }
+
+    public FloatFloydWarshall(int tileSize) {
+        super(tileSize);
+    }
+
+    // Converts an int matrix using BlockedFloydWarshall.INF for missing edges.
+    public static float[] fromInts(int[] cells) {
+        float[] out = new float[cells.length];
+        for (int c = 0; c < cells.length; c++) {
+            out[c] = cells[c] == BlockedFloydWarshall.INF ? INF : cells[c];
+        }
+        return out;
+    }
+
+    @Override
+    int length(float[] dist) {
+        return dist.length;
+    }
+
+    @Override
+    int negativeDiagonal(float[] dist, int n) {
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    void relax(float[] d, int n, int k0, int k1, int i0, int i1, int j0, int j1) {
+        for (int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for (int i = i0; i < i1; i++) {
+                int iRow = i * n;
+                float dik = d[iRow + k];
+                if (dik == INF) continue;
+                for (int j = j0; j < j1; j++) {
+                    float sum = dik + d[kRow + j];
+                    if (sum < d[iRow + j]) {
+                        d[iRow + j] = sum;
+                    }
+                }
+            }
+        }
+    }
+}
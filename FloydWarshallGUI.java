@@ -1,20 +1,50 @@
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 
 public class FloydWarshallGUI extends JFrame {
     private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int MAX_NODES = 5000;
+    // Up to this size the columns are stretched to fill the table; beyond it they scroll.
+    private static final int FIT_COLUMNS_LIMIT = 16;
+
+    // Shared by every GraphPanel frame instead of being allocated per edge.
+    private static final BasicStroke EDGE_STROKE = new BasicStroke(2);
+    private static final BasicStroke HIGHLIGHT_STROKE = new BasicStroke(3);
+    private static final Color EDGE_COLOR = new Color(100, 150, 255);
+    private static final Color WEIGHT_COLOR = new Color(255, 69, 58);
+    private static final Color HIGHLIGHT_COLOR = new Color(255, 255, 0);
+    private static final Color NODE_RING_COLOR = new Color(147, 112, 219);
+    private static final Color NODE_COLOR = new Color(138, 43, 226);
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 14);
+    // Small tiles so progress and cancellation are checked every few pivots.
+    private static final int PROGRESS_TILE_SIZE = 32;
+    private static final long PUBLISH_INTERVAL_NANOS = 250_000_000L;
+    // Beyond this many nodes they overlap on the ring, so the graph panel stops pulsing.
+    private static final int PULSE_NODE_LIMIT = 32;
     private JTextField sizeField;
     private JTable inputTable, resultTable;
-    private DefaultTableModel inputTableModel, resultTableModel;
+    private MatrixTableModel inputTableModel, resultTableModel;
+    private ArrayDistanceMatrix inputMatrix;
     private BSCS2_RODRIGO_fw fw;
+    private ApspCache resultCache;
     private GraphPanel graphPanel;
     private JButton addNodeButton, removeNodeButton, demoGraphButton;
+    private JButton computeButton, cancelButton;
+    private JCheckBox liveUpdatesBox;
+    private JProgressBar progressBar;
+    private ParallelFloydWarshall engine;
+    private ComputeWorker worker;
 
     public FloydWarshallGUI() {
         fw = new BSCS2_RODRIGO_fw();
+        resultCache = ApspCache.withoutSolver(64L * 1024 * 1024);
+        engine = new ParallelFloydWarshall(PROGRESS_TILE_SIZE, Runtime.getRuntime().availableProcessors());
         setTitle("Floyd-Warshall Algorithm Visualizer");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
@@ -48,7 +78,7 @@ public class FloydWarshallGUI extends JFrame {
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         panel.setBackground(new Color(40, 40, 40));
 
-        JLabel sizeLabel = new JLabel("Matrix Size (2-8):");
+        JLabel sizeLabel = new JLabel("Matrix Size (2-" + MAX_NODES + "):");
         sizeLabel.setForeground(Color.WHITE);
         sizeField = new JTextField("4", 5);
         sizeField.setBackground(new Color(50, 50, 50));
@@ -56,7 +86,9 @@ public class FloydWarshallGUI extends JFrame {
         sizeField.setCaretColor(Color.WHITE);
 
         JButton updateSizeButton = new JButton("Update Size");
-        JButton computeButton = new JButton("Compute Shortest Paths");
+        computeButton = new JButton("Compute Shortest Paths");
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
         JButton clearButton = new JButton("Clear");
         addNodeButton = new JButton("Add Node");
         removeNodeButton = new JButton("Remove Last Node");
@@ -64,6 +96,7 @@ public class FloydWarshallGUI extends JFrame {
 
         styleButton(updateSizeButton, new Color(100, 150, 255));
         styleButton(computeButton, new Color(50, 200, 50));
+        styleButton(cancelButton, new Color(255, 140, 0));
         styleButton(clearButton, new Color(255, 100, 100));
         styleButton(addNodeButton, new Color(102, 205, 170));
         styleButton(removeNodeButton, new Color(220, 20, 60));
@@ -72,11 +105,11 @@ public class FloydWarshallGUI extends JFrame {
         updateSizeButton.addActionListener(e -> {
             try {
                 int size = Integer.parseInt(sizeField.getText());
-                if (size >= 2 && size <= 8) {
+                if (size >= 2 && size <= MAX_NODES) {
                     updateTables(size);
-                    graphPanel.updateGraph(new int[size][size]);
+                    graphPanel.updateGraph(BlockedFloydWarshall.toMatrix(inputMatrix.cells(), size));
                 } else {
-                    JOptionPane.showMessageDialog(this, "Please enter a size between 2 and 8.");
+                    JOptionPane.showMessageDialog(this, "Please enter a size between 2 and " + MAX_NODES + ".");
                 }
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid number.");
@@ -84,22 +117,34 @@ public class FloydWarshallGUI extends JFrame {
         });
 
         computeButton.addActionListener(e -> computeFloydWarshall());
+        cancelButton.addActionListener(e -> cancelComputation());
+
+        liveUpdatesBox = new JCheckBox("Live updates");
+        liveUpdatesBox.setBackground(new Color(40, 40, 40));
+        liveUpdatesBox.setForeground(Color.WHITE);
+        liveUpdatesBox.setFocusPainted(false);
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Idle");
 
         clearButton.addActionListener(e -> {
             updateTables(inputTableModel.getRowCount());
-            graphPanel.updateGraph(new int[inputTableModel.getRowCount()][inputTableModel.getRowCount()]);
+            // The same all-INF matrix the table shows: nodes only, no edges to index or draw.
+            graphPanel.updateGraph(BlockedFloydWarshall.toMatrix(inputMatrix.cells(), inputMatrix.size()));
         });
 
         addNodeButton.addActionListener(e -> {
             int currentSize = inputTableModel.getRowCount();
-            if (currentSize < 8) {
+            if (currentSize < MAX_NODES) {
                 int[][] currentGraph = getCurrentGraph();
+                if (currentGraph == null) return;
                 int[][] newGraph = fw.addNode(currentGraph);
                 updateTables(newGraph.length);
                 setGraphToTable(newGraph);
                 graphPanel.updateGraph(newGraph);
             } else {
-                JOptionPane.showMessageDialog(this, "Maximum size (8) reached.");
+                JOptionPane.showMessageDialog(this, "Maximum size (" + MAX_NODES + ") reached.");
             }
         });
 
@@ -107,6 +152,7 @@ public class FloydWarshallGUI extends JFrame {
             int currentSize = inputTableModel.getRowCount();
             if (currentSize > 2) {
                 int[][] currentGraph = getCurrentGraph();
+                if (currentGraph == null) return;
                 int[][] newGraph = fw.removeLastNode(currentGraph);
                 updateTables(newGraph.length);
                 setGraphToTable(newGraph);
@@ -128,6 +174,9 @@ public class FloydWarshallGUI extends JFrame {
         panel.add(sizeField);
         panel.add(updateSizeButton);
         panel.add(computeButton);
+        panel.add(cancelButton);
+        panel.add(liveUpdatesBox);
+        panel.add(progressBar);
         panel.add(clearButton);
         panel.add(addNodeButton);
         panel.add(removeNodeButton);
@@ -178,8 +227,9 @@ public class FloydWarshallGUI extends JFrame {
             0, 0, null, Color.WHITE));
         panel.setBackground(new Color(40, 40, 40));
         
-        inputTableModel = new DefaultTableModel();
+        inputTableModel = new MatrixTableModel(true);
         inputTable = new JTable(inputTableModel);
+        inputTable.setDefaultEditor(String.class, new WeightCellEditor());
         inputTable.setRowHeight(30);
         inputTable.setFont(new Font("Monospaced", Font.PLAIN, 14));
         inputTable.setGridColor(new Color(80, 80, 80));
@@ -202,7 +252,7 @@ public class FloydWarshallGUI extends JFrame {
             0, 0, null, Color.WHITE));
         panel.setBackground(new Color(40, 40, 40));
         
-        resultTableModel = new DefaultTableModel();
+        resultTableModel = new MatrixTableModel(false);
         resultTable = new JTable(resultTableModel);
         resultTable.setRowHeight(30);
         resultTable.setFont(new Font("Monospaced", Font.PLAIN, 14));
@@ -219,102 +269,214 @@ public class FloydWarshallGUI extends JFrame {
         return panel;
     }
 
+    // Null if the cell being edited holds text that is not a weight.
     private int[][] getCurrentGraph() {
-        int size = inputTableModel.getRowCount();
-        int[][] graph = new int[size][size];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                Object value = inputTableModel.getValueAt(i, j);
-                String strValue = value != null ? value.toString() : "";
-                if (strValue.trim().isEmpty() || strValue.equals("∞") || strValue.equalsIgnoreCase("INF")) {
-                    graph[i][j] = INF;
-                } else {
-                    try {
-                        graph[i][j] = Integer.parseInt(strValue.trim());
-                    } catch (NumberFormatException e) {
-                        graph[i][j] = INF;
-                    }
-                }
-            }
-        }
+        if (!stopEditing()) return null;
+        int[][] graph = BlockedFloydWarshall.toMatrix(inputMatrix.cells(), inputMatrix.size());
         makeGraphSymmetric(graph); // Ensure symmetry for undirected graph
         return graph;
     }
 
     private void setGraphToTable(int[][] graph) {
         makeGraphSymmetric(graph); // Ensure symmetry before updating table
-        for (int i = 0; i < graph.length; i++) {
-            for (int j = 0; j < graph.length; j++) {
-                String value = graph[i][j] == INF ? "∞" : String.valueOf(graph[i][j]);
-                inputTableModel.setValueAt(value, i, j);
-            }
-        }
+        inputMatrix = ArrayDistanceMatrix.of(graph);
+        inputTableModel.setMatrix(inputMatrix);
     }
 
     private void updateTables(int size) {
-        inputTableModel.setRowCount(0);
-        inputTableModel.setColumnCount(0);
-        String[] columnNames = new String[size];
-        for (int i = 0; i < size; i++) {
-            columnNames[i] = String.valueOf(i);
+        cancelComputation();
+        if (inputTable.isEditing()) {
+            inputTable.getCellEditor().cancelCellEditing(); // the matrix is replaced anyway
         }
-        inputTableModel.setDataVector(new Object[size][size], columnNames);
-        
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                inputTableModel.setValueAt("", i, j);
-            }
-        }
-
-        resultTableModel.setRowCount(0);
-        resultTableModel.setColumnCount(0);
-        resultTableModel.setDataVector(new Object[size][size], columnNames);
+        int[] cells = new int[size * size];
+        Arrays.fill(cells, INF);
+        inputMatrix = new ArrayDistanceMatrix(cells, size);
+        inputTableModel.setMatrix(inputMatrix);
+        resultTableModel.clear(size);
+
+        int resizeMode = size <= FIT_COLUMNS_LIMIT ? JTable.AUTO_RESIZE_SUBSEQUENT_COLUMNS : JTable.AUTO_RESIZE_OFF;
+        inputTable.setAutoResizeMode(resizeMode);
+        resultTable.setAutoResizeMode(resizeMode);
         
         sizeField.setText(String.valueOf(size));
     }
 
+    // Commits a cell that is still being typed into, so it is part of the matrix.
+    // False if WeightCellEditor rejected its text; the cell then stays in editing.
+    private boolean stopEditing() {
+        return !inputTable.isEditing() || inputTable.getCellEditor().stopCellEditing();
+    }
+
     private void computeFloydWarshall() {
         try {
-            int size = inputTableModel.getRowCount();
-            int[][] graph = new int[size][size];
+            if (!stopEditing()) return;
+            int size = inputMatrix.size();
+            int[] graph = inputMatrix.cells().clone();
             
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    Object value = inputTableModel.getValueAt(i, j);
-                    String strValue = value != null ? value.toString() : "";
-                    if (strValue.trim().isEmpty() || strValue.equals("∞") || strValue.equalsIgnoreCase("INF")) {
-                        graph[i][j] = INF;
-                    } else {
-                        graph[i][j] = Integer.parseInt(strValue.trim());
-                    }
-                }
-            }
-            
-            int[][] result = fw.floydWarshall(graph);
-            
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    String value = result[i][j] == INF ? "∞" : String.valueOf(result[i][j]);
-                    resultTableModel.setValueAt(value, i, j);
+            graphPanel.updateGraph(BlockedFloydWarshall.toMatrix(graph, size));
+
+            ComputeWorker task = new ComputeWorker(graph, size, liveUpdatesBox.isSelected());
+            task.addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName()) && worker == task) {
+                    progressBar.setValue((Integer) e.getNewValue());
+                    progressBar.setString(task.completedPivots + " / " + size + " pivots");
                 }
-            }
-            
-            graphPanel.updateGraph(graph);
+            });
+            worker = task;
+            computeButton.setEnabled(false);
+            cancelButton.setEnabled(true);
+            progressBar.setValue(0);
+            progressBar.setString("0 / " + size + " pivots");
+            task.execute();
             
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Please enter valid numbers or '∞'.");
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "An error occurred: " + ex.getMessage());
         }
     }
 
+    private void cancelComputation() {
+        if (worker != null) {
+            worker.cancel(false);
+        }
+    }
+
+    private void showResult(DistanceMatrix result) {
+        if (result.size() != resultTableModel.getRowCount()) return;
+        resultTableModel.setMatrix(result);
+    }
+
+    // Refuses to commit text that is not a weight, with the same message the
+    // table showed before it was backed by MatrixTableModel.
+    class WeightCellEditor extends DefaultCellEditor {
+        private static final long serialVersionUID = 1L;
+
+        WeightCellEditor() {
+            super(new JTextField());
+        }
+
+        @Override
+        public boolean stopCellEditing() {
+            try {
+                MatrixTableModel.parseWeight(((JTextField) getComponent()).getText());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(FloydWarshallGUI.this, "Please enter valid numbers or '∞'.");
+                return false;
+            }
+            return super.stopCellEditing();
+        }
+    }
+
+    // Runs the cubic pass off the event thread so the window and the graph animation
+    // stay responsive. The engine reports after every round of pivots; with live
+    // updates on, a copy of the partial matrix is published at most every 250 ms.
+    class ComputeWorker extends SwingWorker<DistanceMatrix, DistanceMatrix> implements PivotListener {
+        private final int[] graph;
+        private final int size;
+        private final boolean publishPartial;
+        private volatile int completedPivots;
+        private long lastPublish;
+        private long solveNanos = -1; // stays -1 for a cache hit
+        private long cellUpdates = -1; // ApspMetrics cells of this run, when metrics are on
+
+        // graph is owned by the worker from here on.
+        ComputeWorker(int[] graph, int size, boolean publishPartial) {
+            this.graph = graph;
+            this.size = size;
+            this.publishPartial = publishPartial;
+        }
+
+        @Override
+        protected DistanceMatrix doInBackground() {
+            DistanceMatrix cached = resultCache.lookup(graph, size);
+            if (cached != null) {
+                completedPivots = size;
+                return cached;
+            }
+            int[] dist = graph.clone();
+            long cellsBefore = ApspMetrics.get().getCellUpdates();
+            long start = System.nanoTime();
+            lastPublish = start;
+            if (!engine.floydWarshall(dist, size, this)) {
+                return null;
+            }
+            solveNanos = System.nanoTime() - start;
+            if (ApspMetrics.ENABLED) cellUpdates = ApspMetrics.get().getCellUpdates() - cellsBefore;
+            return resultCache.store(graph, size, dist);
+        }
+
+        // Called on an engine thread between rounds; returning false stops the run.
+        @Override
+        public boolean pivotsDone(int done, int n, int[] dist) {
+            completedPivots = done;
+            setProgress((int) (100L * done / n));
+            long now = System.nanoTime();
+            if (publishPartial && done < n && now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+                lastPublish = now;
+                publish(new ArrayDistanceMatrix(dist.clone(), n));
+            }
+            return !isCancelled();
+        }
+
+        @Override
+        protected void process(List<DistanceMatrix> partials) {
+            if (worker != this || isCancelled()) return;
+            showResult(partials.get(partials.size() - 1));
+        }
+
+        @Override
+        protected void done() {
+            if (worker != this) return;
+            worker = null;
+            computeButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            if (isCancelled()) {
+                progressBar.setString("Cancelled after " + completedPivots + " / " + size + " pivots");
+                return;
+            }
+            try {
+                showResult(get());
+                progressBar.setValue(100);
+                progressBar.setString(doneText());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                progressBar.setString("Failed");
+                JOptionPane.showMessageDialog(FloydWarshallGUI.this, "An error occurred: " + ex.getCause().getMessage());
+            }
+        }
+
+        // With ApspMetrics on, the cell updates it counted for this run (INF rows
+        // excluded, as in the MBean); otherwise plain n^3 over the run. Both are
+        // over wall time, which includes the listener and the partial publishes.
+        private String doneText() {
+            if (solveNanos < 0) return "Done (cached)";
+            double seconds = Math.max(solveNanos, 1) / 1e9;
+            if (cellUpdates >= 0) {
+                return String.format("Done in %d ms, %.3g cell updates/s", solveNanos / 1_000_000,
+                        cellUpdates / seconds);
+            }
+            return String.format("Done in %d ms, n³ throughput %.3g/s", solveNanos / 1_000_000,
+                    (double) size * size * size / seconds);
+        }
+    }
+
     class GraphPanel extends JPanel {
         private int[][] graph;
         private ArrayList<Point> nodePositions;
-        private ArrayList<Float> nodeScales;
+        private int[] nodeSizes = new int[0]; // Pulsing diameter, 40 * scale
+        private String[] nodeLabels = new String[0];
+        private String[] edgeLabels = new String[0];
         private int draggedEdgeI = -1, draggedEdgeJ = -1;
         private boolean isDragging = false;
         private int draggedNode = -1; // Tracks the node being dragged
+        // Nodes are at most 40 * 1.1 px across while pulsing; edges are hit within 15 px.
+        private final GraphHitIndex hitIndex = new GraphHitIndex(32, 22, 15);
+        // Edges and weights, redrawn only when the graph or layout changes. While a
+        // node is dragged the layer leaves out its edges, which are drawn live instead.
+        private BufferedImage edgeLayer;
+        private boolean edgeLayerValid;
+        private int edgeLayerExcludes = -1;
+        private final Timer pulseTimer = new Timer(50, e -> pulse());
 
         public GraphPanel() {
             setBorder(BorderFactory.createTitledBorder(
@@ -324,39 +486,26 @@ public class FloydWarshallGUI extends JFrame {
             setBackground(new Color(30, 30, 30));
             graph = new int[0][0];
             nodePositions = new ArrayList<>();
-            nodeScales = new ArrayList<>();
 
             addMouseListener(new MouseAdapter() {
                 @Override
                 public void mousePressed(MouseEvent e) {
                     // Check for node dragging first
-                    int size = nodePositions.size();
-                    for (int i = 0; i < size; i++) {
-                        Point p = nodePositions.get(i);
-                        float scale = nodeScales.get(i);
-                        int nodeSize = (int) (40 * scale);
-                        Rectangle nodeBounds = new Rectangle(p.x - nodeSize / 2, p.y - nodeSize / 2, nodeSize, nodeSize);
-                        if (nodeBounds.contains(e.getPoint())) {
-                            draggedNode = i;
-                            isDragging = true;
-                            repaint();
-                            return;
-                        }
+                    int node = nodeAt(e.getPoint());
+                    if (node != -1) {
+                        draggedNode = node;
+                        isDragging = true;
+                        repaint();
+                        return;
                     }
 
                     // Check for edge dragging if no node is selected
-                    for (int i = 0; i < size; i++) {
-                        for (int j = 0; j < size; j++) {
-                            if (graph[i][j] != INF) {
-                                if (isNearEdge(e.getPoint(), i, j)) {
-                                    draggedEdgeI = i;
-                                    draggedEdgeJ = j;
-                                    isDragging = true;
-                                    repaint();
-                                    return;
-                                }
-                            }
-                        }
+                    int edge = edgeAt(e.getPoint());
+                    if (edge != -1) {
+                        draggedEdgeI = hitIndex.edgeFrom(edge);
+                        draggedEdgeJ = hitIndex.edgeTo(edge);
+                        isDragging = true;
+                        repaint();
                     }
                 }
 
@@ -366,6 +515,7 @@ public class FloydWarshallGUI extends JFrame {
                         // Stop dragging node
                         draggedNode = -1;
                         isDragging = false;
+                        edgeLayerValid = false;
                         repaint();
                     } else if (isDragging && draggedEdgeI != -1 && draggedEdgeJ != -1) {
                         // Handle edge weight change
@@ -374,6 +524,7 @@ public class FloydWarshallGUI extends JFrame {
                             graph[draggedEdgeI][draggedEdgeJ] = newWeight;
                             graph[draggedEdgeJ][draggedEdgeI] = newWeight; // Enforce symmetry
                             setGraphToTable(graph);
+                            reindex();
                             repaint();
                         }
                         draggedEdgeI = -1;
@@ -390,6 +541,7 @@ public class FloydWarshallGUI extends JFrame {
                     if (isDragging && draggedNode != -1) {
                         // Update position of dragged node
                         nodePositions.set(draggedNode, e.getPoint());
+                        hitIndex.moveNode(draggedNode, e.getX(), e.getY());
                         repaint();
                     } else if (isDragging && draggedEdgeI != -1 && draggedEdgeJ != -1) {
                         repaint();
@@ -398,53 +550,77 @@ public class FloydWarshallGUI extends JFrame {
 
                 @Override
                 public void mouseMoved(MouseEvent e) {
-                    int size = nodePositions.size();
-                    boolean found = false;
-
-                    // Check if mouse is over a node
-                    for (int i = 0; i < size; i++) {
-                        Point p = nodePositions.get(i);
-                        float scale = nodeScales.get(i);
-                        int nodeSize = (int) (40 * scale);
-                        Rectangle nodeBounds = new Rectangle(p.x - nodeSize / 2, p.y - nodeSize / 2, nodeSize, nodeSize);
-                        if (nodeBounds.contains(e.getPoint())) {
-                            setCursor(new Cursor(Cursor.MOVE_CURSOR));
-                            found = true;
-                            break;
-                        }
-                    }
-
-                    // Check if mouse is over an edge if not over a node
-                    if (!found) {
-                        for (int i = 0; i < size; i++) {
-                            for (int j = 0; j < size; j++) {
-                                if (graph[i][j] != INF) {
-                                    if (isNearEdge(e.getPoint(), i, j)) {
-                                        setCursor(new Cursor(Cursor.HAND_CURSOR));
-                                        found = true;
-                                        break;
-                                    }
-                                }
-                            }
-                            if (found) break;
-                        }
-                    }
-
-                    if (!found) {
-                        setCursor(new Cursor(Cursor.DEFAULT_CURSOR));
+                    // Check if mouse is over a node, then over an edge
+                    if (nodeAt(e.getPoint()) != -1) {
+                        setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+                    } else if (edgeAt(e.getPoint()) != -1) {
+                        setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+                    } else {
+                        setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
                     }
                 }
             });
 
-            Timer timer = new Timer(50, e -> {
-                for (int i = 0; i < nodeScales.size(); i++) {
-                    float scale = nodeScales.get(i);
-                    scale = 1.0f + 0.1f * (float) Math.sin(System.currentTimeMillis() * 0.002 + i);
-                    nodeScales.set(i, scale);
-                }
+            addHierarchyListener(e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) updatePulseTimer();
+            });
+        }
+
+        // Pulsing repaints the whole ring every tick, so it only runs while the panel
+        // is on screen and the graph is small enough to be worth animating.
+        private void updatePulseTimer() {
+            boolean pulsing = isShowing() && nodeSizes.length <= PULSE_NODE_LIMIT;
+            if (pulsing && !pulseTimer.isRunning()) {
+                pulseTimer.start();
+            } else if (!pulsing && pulseTimer.isRunning()) {
+                pulseTimer.stop();
+                Arrays.fill(nodeSizes, 40);
                 repaint();
+            }
+        }
+
+        // Same bounds as the drawn node: a square of 40 * scale px around its centre.
+        private int nodeAt(Point p) {
+            return hitIndex.nodeAt(p.x, p.y, i -> {
+                Point c = nodePositions.get(i);
+                int nodeSize = nodeSizes[i];
+                int left = c.x - nodeSize / 2;
+                int top = c.y - nodeSize / 2;
+                return p.x >= left && p.x < left + nodeSize && p.y >= top && p.y < top + nodeSize;
             });
-            timer.start();
+        }
+
+        private int edgeAt(Point p) {
+            return hitIndex.edgeAt(p.x, p.y, e -> isNearEdge(p, hitIndex.edgeFrom(e), hitIndex.edgeTo(e)));
+        }
+
+        private void reindex() {
+            hitIndex.rebuild(nodePositions, graph, getWidth(), getHeight());
+            edgeLabels = new String[hitIndex.edgeCount()];
+            for (int e = 0; e < edgeLabels.length; e++) {
+                edgeLabels[e] = String.valueOf(graph[hitIndex.edgeFrom(e)][hitIndex.edgeTo(e)]);
+            }
+            edgeLayerValid = false;
+        }
+
+        // RepaintManager merges every dirty box on the panel into one rectangle, so
+        // with the nodes on a circle a tick repaints the whole ring anyway; ask for
+        // that once, and only when some node's drawn size changed.
+        private void pulse() {
+            double phase = System.currentTimeMillis() * 0.002;
+            Rectangle dirty = null;
+            for (int i = 0; i < nodeSizes.length; i++) {
+                float scale = 1.0f + 0.1f * (float) Math.sin(phase + i);
+                int size = (int) (40 * scale);
+                if (size != nodeSizes[i]) {
+                    int reach = Math.max(size, nodeSizes[i]) / 2 + 6;
+                    nodeSizes[i] = size;
+                    Point p = nodePositions.get(i);
+                    Rectangle box = new Rectangle(p.x - reach, p.y - reach, 2 * reach, 2 * reach);
+                    dirty = dirty == null ? box : dirty.union(box);
+                }
+            }
+            if (dirty != null) repaint(dirty);
         }
 
         private boolean isNearEdge(Point p, int i, int j) {
@@ -487,7 +663,8 @@ public class FloydWarshallGUI extends JFrame {
             
             if (nodePositions.size() != size) {
                 nodePositions.clear();
-                nodeScales.clear();
+                nodeSizes = new int[size];
+                nodeLabels = new String[size];
                 
                 int centerX = getWidth() / 2;
                 int centerY = getHeight() / 2;
@@ -498,9 +675,12 @@ public class FloydWarshallGUI extends JFrame {
                     int x = (int) (centerX + radius * Math.cos(angle));
                     int y = (int) (centerY + radius * Math.sin(angle));
                     nodePositions.add(new Point(x, y));
-                    nodeScales.add(1.0f);
+                    nodeSizes[i] = 40;
+                    nodeLabels[i] = String.valueOf(i);
                 }
             }
+            reindex();
+            updatePulseTimer();
             
             repaint();
         }
@@ -513,124 +693,80 @@ public class FloydWarshallGUI extends JFrame {
 
             if (graph.length == 0) return;
 
-            for (int i = 0; i < graph.length; i++) {
-                for (int j = i + 1; j < graph.length; j++) { // Only draw upper triangle to avoid duplicate edges
-                    if (graph[i][j] != INF) {
-                        Point p1 = nodePositions.get(i);
-                        Point p2 = nodePositions.get(j);
-                        g2d.setStroke(new BasicStroke(2));
-                        g2d.setColor(new Color(100, 150, 255));
-                        g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
-
-                        int midX = (p1.x + p2.x) / 2;
-                        int midY = (p1.y + p2.y) / 2;
-                        g2d.setColor(new Color(255, 69, 58));
-                        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-                        g2d.drawString(String.valueOf(graph[i][j]), midX, midY);
-
-                        if (isDragging && ((i == draggedEdgeI && j == draggedEdgeJ) || (i == draggedEdgeJ && j == draggedEdgeI))) {
-                            g2d.setColor(new Color(255, 255, 0));
-                            g2d.setStroke(new BasicStroke(3));
-                            g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
-                        }
-                    }
+            if (!edgeLayerValid || edgeLayerExcludes != draggedNode
+                    || edgeLayer == null || edgeLayer.getWidth() != getWidth() || edgeLayer.getHeight() != getHeight()) {
+                renderEdgeLayer();
+            }
+            g2d.drawImage(edgeLayer, 0, 0, null);
+
+            g2d.setFont(LABEL_FONT);
+            if (draggedNode != -1) {
+                for (int k = 0; k < hitIndex.degree(draggedNode); k++) {
+                    drawEdge(g2d, hitIndex.incidentEdge(draggedNode, k));
                 }
             }
+            if (isDragging && draggedEdgeI != -1) {
+                Point p1 = nodePositions.get(draggedEdgeI);
+                Point p2 = nodePositions.get(draggedEdgeJ);
+                g2d.setColor(HIGHLIGHT_COLOR);
+                g2d.setStroke(HIGHLIGHT_STROKE);
+                g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
+            }
 
+            // Every node is drawn: a pulse's clip covers the whole ring.
             for (int i = 0; i < nodePositions.size(); i++) {
                 Point p = nodePositions.get(i);
-                float scale = nodeScales.get(i);
-                int size = (int) (40 * scale);
-                g2d.setColor(new Color(147, 112, 219));
+                int size = nodeSizes[i];
+                g2d.setColor(NODE_RING_COLOR);
                 g2d.fillOval(p.x - size / 2 - 5, p.y - size / 2 - 5, size + 10, size + 10);
-                g2d.setColor(new Color(138, 43, 226));
+                g2d.setColor(NODE_COLOR);
                 g2d.fillOval(p.x - size / 2, p.y - size / 2, size, size);
                 g2d.setColor(Color.WHITE);
-                g2d.drawString(String.valueOf(i), p.x - 5, p.y + 5);
+                g2d.drawString(nodeLabels[i], p.x - 5, p.y + 5);
             }
         }
 
-        @Override
-        public Dimension getPreferredSize() {
-            return new Dimension(600, 400); // Larger panel for clarity
-        }
-    }
-
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            new FloydWarshallGUI().setVisible(true);
-        });
-    }
-}
-
-class BSCS2_RODRIGO_fw {
-    private static final int INF = Integer.MAX_VALUE / 2;
-
-    public int[][] floydWarshall(int[][] graph) {
-        int n = graph.length;
-        int[][] dist = new int[n][n];
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                dist[i][j] = graph[i][j];
+        private void renderEdgeLayer() {
+            int width = Math.max(getWidth(), 1);
+            int height = Math.max(getHeight(), 1);
+            if (edgeLayer == null || edgeLayer.getWidth() != width || edgeLayer.getHeight() != height) {
+                edgeLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
             }
-        }
-
-        for (int k = 0; k < n; k++) {
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    if (dist[i][k] != INF && dist[k][j] != INF) {
-                        dist[i][j] = Math.min(dist[i][j], dist[i][k] + dist[k][j]);
-                    }
+            Graphics2D g2d = edgeLayer.createGraphics();
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setFont(LABEL_FONT);
+            for (int e = 0; e < hitIndex.edgeCount(); e++) {
+                if (hitIndex.edgeFrom(e) != draggedNode && hitIndex.edgeTo(e) != draggedNode) {
+                    drawEdge(g2d, e);
                 }
             }
+            g2d.dispose();
+            edgeLayerExcludes = draggedNode;
+            edgeLayerValid = true;
         }
 
-        return dist;
-    }
-
-    public int[][] addNode(int[][] graph) {
-        int n = graph.length;
-        int[][] newGraph = new int[n + 1][n + 1];
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                newGraph[i][j] = graph[i][j];
-            }
-        }
-
-        for (int i = 0; i < n + 1; i++) {
-            newGraph[i][n] = INF;
-            newGraph[n][i] = INF;
+        private void drawEdge(Graphics2D g2d, int e) {
+            Point p1 = nodePositions.get(hitIndex.edgeFrom(e));
+            Point p2 = nodePositions.get(hitIndex.edgeTo(e));
+            g2d.setStroke(EDGE_STROKE);
+            g2d.setColor(EDGE_COLOR);
+            g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
+            g2d.setColor(WEIGHT_COLOR);
+            g2d.drawString(edgeLabels[e], (p1.x + p2.x) / 2, (p1.y + p2.y) / 2);
         }
 
-        newGraph[n][n] = 0;
-
-        return newGraph;
-    }
-
-    public int[][] removeLastNode(int[][] graph) {
-        int n = graph.length;
-        if (n <= 1) return graph;
-
-        int[][] newGraph = new int[n - 1][n - 1];
-
-        for (int i = 0; i < n - 1; i++) {
-            for (int j = 0; j < n - 1; j++) {
-                newGraph[i][j] = graph[i][j];
-            }
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(600, 400); // Larger panel for clarity
         }
-
-        return newGraph;
     }
 
-    public int[][] getDemoGraph() {
-        int[][] demoGraph = {
-            {0, 5, INF, 10},
-            {5, 0, 3, INF},
-            {INF, 3, 0, 1},
-            {10, INF, 1, 0}
-        };
-        return demoGraph; // Symmetric matrix for undirected graph
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            new FloydWarshallGUI().setVisible(true);
+        });
     }
 }
\ No newline at end of file
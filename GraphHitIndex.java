@@ -0,0 +1,231 @@
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Uniform grid over node positions and edge segments for GraphPanel hit-testing.
+// Each node and edge is filed under every cell from which it can be hit, so a
+// query only scans the single cell under the mouse. Dragging a node refiles just
+// that node and its incident edges. Cells are clamped to the grid built at the
+// last rebuild, so positions dragged outside it still land in a border cell.
+final class GraphHitIndex {
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final int cellSize;
+    private final int nodeReach;
+    private final int edgeReach;
+
+    private int originX, originY, cols, rows;
+    private int[] nodeX = new int[0];
+    private int[] nodeY = new int[0];
+    private int[] edgeFrom = new int[0];
+    private int[] edgeTo = new int[0];
+    private int[][] incident = new int[0][];
+    private int[] incidentCount = new int[0];
+
+    private int[][] nodeCells = new int[0][];
+    private int[] nodeCellCount = new int[0];
+    private int[][] edgeCells = new int[0][];
+    private int[] edgeCellCount = new int[0];
+
+    // nodeReach: how far from its centre a node can be hit; edgeReach: the same for a segment.
+    GraphHitIndex(int cellSize, int nodeReach, int edgeReach) {
+        this.cellSize = cellSize;
+        this.nodeReach = nodeReach;
+        this.edgeReach = edgeReach;
+    }
+
+    // Indexes every node and each undirected edge i < j with graph[i][j] != INF.
+    void rebuild(List<Point> positions, int[][] graph, int width, int height) {
+        int n = positions.size();
+        nodeX = new int[n];
+        nodeY = new int[n];
+        int minX = 0, minY = 0, maxX = width, maxY = height;
+        for (int i = 0; i < n; i++) {
+            Point p = positions.get(i);
+            nodeX[i] = p.x;
+            nodeY[i] = p.y;
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+            maxX = Math.max(maxX, p.x);
+            maxY = Math.max(maxY, p.y);
+        }
+        int reach = Math.max(nodeReach, edgeReach);
+        originX = minX - reach;
+        originY = minY - reach;
+        cols = (maxX + reach - originX) / cellSize + 1;
+        rows = (maxY + reach - originY) / cellSize + 1;
+        nodeCells = new int[cols * rows][];
+        nodeCellCount = new int[cols * rows];
+        edgeCells = new int[cols * rows][];
+        edgeCellCount = new int[cols * rows];
+
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (graph[i][j] != INF) m++;
+            }
+        }
+        edgeFrom = new int[m];
+        edgeTo = new int[m];
+        incident = new int[n][];
+        incidentCount = new int[n];
+        int e = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (graph[i][j] == INF) continue;
+                edgeFrom[e] = i;
+                edgeTo[e] = j;
+                append(incident, incidentCount, i, e);
+                append(incident, incidentCount, j, e);
+                e++;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            fileNode(i, true);
+        }
+        for (e = 0; e < m; e++) {
+            fileEdge(e, true);
+        }
+    }
+
+    void moveNode(int node, int x, int y) {
+        for (int k = 0; k < incidentCount[node]; k++) {
+            fileEdge(incident[node][k], false);
+        }
+        fileNode(node, false);
+        nodeX[node] = x;
+        nodeY[node] = y;
+        fileNode(node, true);
+        for (int k = 0; k < incidentCount[node]; k++) {
+            fileEdge(incident[node][k], true);
+        }
+    }
+
+    // Lowest node index filed under (x, y) that passes the exact test, or -1.
+    int nodeAt(int x, int y, IntPredicate hit) {
+        return first(nodeCells, nodeCellCount, cell(x, y), hit);
+    }
+
+    // Lowest edge id filed under (x, y) that passes the exact test, or -1. Ids
+    // follow the row-major order of the upper triangle.
+    int edgeAt(int x, int y, IntPredicate hit) {
+        return first(edgeCells, edgeCellCount, cell(x, y), hit);
+    }
+
+    int edgeCount() {
+        return edgeFrom.length;
+    }
+
+    int degree(int node) {
+        return incidentCount[node];
+    }
+
+    int incidentEdge(int node, int k) {
+        return incident[node][k];
+    }
+
+    int edgeFrom(int edge) {
+        return edgeFrom[edge];
+    }
+
+    int edgeTo(int edge) {
+        return edgeTo[edge];
+    }
+
+    private static int first(int[][] cells, int[] counts, int cell, IntPredicate hit) {
+        if (cell < 0) return -1;
+        int[] bucket = cells[cell];
+        int best = -1;
+        for (int k = 0; k < counts[cell]; k++) {
+            int id = bucket[k];
+            if ((best < 0 || id < best) && hit.test(id)) best = id;
+        }
+        return best;
+    }
+
+    private void fileNode(int node, boolean add) {
+        int x = nodeX[node];
+        int y = nodeY[node];
+        int cx1 = clampCol(x + nodeReach);
+        int cy1 = clampRow(y + nodeReach);
+        for (int cy = clampRow(y - nodeReach); cy <= cy1; cy++) {
+            for (int cx = clampCol(x - nodeReach); cx <= cx1; cx++) {
+                file(nodeCells, nodeCellCount, cy * cols + cx, node, add);
+            }
+        }
+    }
+
+    // Files the edge under each cell whose square comes within edgeReach of the segment.
+    // Cells outside the grid fold into the border, possibly filing an edge twice there;
+    // removal walks the same cells, so the counts stay balanced.
+    private void fileEdge(int edge, boolean add) {
+        int x1 = nodeX[edgeFrom[edge]], y1 = nodeY[edgeFrom[edge]];
+        int x2 = nodeX[edgeTo[edge]], y2 = nodeY[edgeTo[edge]];
+        double slack = edgeReach + cellSize * 0.7072; // reach plus half the cell diagonal
+        int cx0 = Math.floorDiv(Math.min(x1, x2) - edgeReach - originX, cellSize);
+        int cx1 = Math.floorDiv(Math.max(x1, x2) + edgeReach - originX, cellSize);
+        int cy0 = Math.floorDiv(Math.min(y1, y2) - edgeReach - originY, cellSize);
+        int cy1 = Math.floorDiv(Math.max(y1, y2) + edgeReach - originY, cellSize);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            double centerY = originY + cy * cellSize + cellSize / 2.0;
+            for (int cx = cx0; cx <= cx1; cx++) {
+                double centerX = originX + cx * cellSize + cellSize / 2.0;
+                if (segmentDistance(centerX, centerY, x1, y1, x2, y2) <= slack) {
+                    int cell = Math.min(Math.max(cy, 0), rows - 1) * cols + Math.min(Math.max(cx, 0), cols - 1);
+                    file(edgeCells, edgeCellCount, cell, edge, add);
+                }
+            }
+        }
+    }
+
+    private static double segmentDistance(double x, double y, int x1, int y1, int x2, int y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / len2;
+        t = Math.max(0, Math.min(1, t));
+        return Math.hypot(x - (x1 + t * dx), y - (y1 + t * dy));
+    }
+
+    private static void file(int[][] cells, int[] counts, int cell, int id, boolean add) {
+        if (add) {
+            append(cells, counts, cell, id);
+            return;
+        }
+        int[] bucket = cells[cell];
+        int last = --counts[cell];
+        for (int k = 0; k <= last; k++) {
+            if (bucket[k] == id) {
+                bucket[k] = bucket[last];
+                return;
+            }
+        }
+        counts[cell]++; // not filed here
+    }
+
+    private static void append(int[][] lists, int[] counts, int list, int value) {
+        int[] items = lists[list];
+        if (items == null) {
+            items = lists[list] = new int[4];
+        } else if (counts[list] == items.length) {
+            items = lists[list] = Arrays.copyOf(items, items.length * 2);
+        }
+        items[counts[list]++] = value;
+    }
+
+    // -1 before the first rebuild.
+    private int cell(int x, int y) {
+        if (cols == 0) return -1;
+        return clampRow(y) * cols + clampCol(x);
+    }
+
+    private int clampCol(int x) {
+        return Math.min(Math.max(Math.floorDiv(x - originX, cellSize), 0), cols - 1);
+    }
+
+    private int clampRow(int y) {
+        return Math.min(Math.max(Math.floorDiv(y - originY, cellSize), 0), rows - 1);
+    }
+}
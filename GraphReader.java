@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+// Streaming loader for DIMACS shortest-path files (.gr) and plain "u v w" edge
+// lists. Bytes are scanned straight out of one reusable buffer filled from a
+// ReadableByteChannel; numbers are accumulated digit by digit, so no String or
+// other per-token object is created. Edges go straight into an EdgeSink.
+//
+// DIMACS: "c" comment lines, one "p sp N M" line, then "a U V W" arcs, 1-based.
+// Edge list: "u v [w]" per line, 0-based, w defaults to 1; "#" or "%" lines are comments.
+public final class GraphReader {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    public enum Format { DIMACS, EDGE_LIST }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int pos;
+    private int limit;
+    private long line = 1;
+
+    private GraphReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        this.bytes = buffer.array();
+    }
+
+    public static void read(ReadableByteChannel channel, Format format, EdgeSink sink) throws IOException {
+        GraphReader reader = new GraphReader(channel);
+        if (format == Format.DIMACS) {
+            reader.readDimacs(sink);
+        } else {
+            reader.readEdgeList(sink);
+        }
+    }
+
+    public static CsrGraph readCsr(ReadableByteChannel channel, Format format) throws IOException {
+        EdgeBuffer edges = new EdgeBuffer();
+        read(channel, format, edges);
+        return CsrGraph.fromEdges(edges.vertexCount(), edges.from, edges.to, edges.weight, edges.size);
+    }
+
+    // Dense row-major adjacency (0 on the diagonal, INF elsewhere, lightest parallel edge wins).
+    public static ArrayDistanceMatrix readMatrix(ReadableByteChannel channel, Format format) throws IOException {
+        MatrixSink sink = new MatrixSink();
+        read(channel, format, sink);
+        return sink.finish();
+    }
+
+    private void readDimacs(EdgeSink sink) throws IOException {
+        int n = -1;
+        while (true) {
+            skipBlanks();
+            int c = peek();
+            if (c < 0) break;
+            if (c == '\n') {
+                nextLine();
+            } else if (c == 'c') {
+                skipLine();
+            } else if (c == 'p') {
+                pos++;
+                skipBlanks();
+                while (isLetter(peek())) pos++;
+                n = (int) readNumber(1, Integer.MAX_VALUE);
+                long m = readNumber(0, Integer.MAX_VALUE);
+                sink.begin(n, m);
+                skipLine();
+            } else if (c == 'a') {
+                if (n < 0) throw error("arc before the problem line");
+                pos++;
+                int u = (int) readNumber(1, n) - 1;
+                int v = (int) readNumber(1, n) - 1;
+                int w = (int) readNumber(-(long) INF + 1, INF - 1);
+                sink.edge(u, v, w);
+                skipLine();
+            } else {
+                throw error("unexpected '" + (char) c + "'");
+            }
+        }
+    }
+
+    private void readEdgeList(EdgeSink sink) throws IOException {
+        while (true) {
+            skipBlanks();
+            int c = peek();
+            if (c < 0) break;
+            if (c == '\n') {
+                nextLine();
+            } else if (c == '#' || c == '%') {
+                skipLine();
+            } else {
+                int u = (int) readNumber(0, Integer.MAX_VALUE - 1);
+                int v = (int) readNumber(0, Integer.MAX_VALUE - 1);
+                skipBlanks();
+                int next = peek();
+                int w = next < 0 || next == '\n' ? 1 : (int) readNumber(-(long) INF + 1, INF - 1);
+                sink.edge(u, v, w);
+                skipLine();
+            }
+        }
+    }
+
+    private long readNumber(long min, long max) throws IOException {
+        skipBlanks();
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+            c = peek();
+        }
+        if (c < '0' || c > '9') throw error("expected a number");
+        // Bounds stay within int range, so the long accumulator cannot overflow.
+        long bound = Math.max(max, -min);
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > bound) throw error("number out of range");
+            pos++;
+            c = peek();
+        }
+        if (negative) value = -value;
+        if (value < min || value > max) throw error("number " + value + " outside [" + min + ", " + max + "]");
+        return value;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return bytes[pos] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        pos = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private void skipBlanks() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r') {
+            pos++;
+            c = peek();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c = peek();
+        while (c >= 0 && c != '\n') {
+            pos++;
+            c = peek();
+        }
+        if (c == '\n') nextLine();
+    }
+
+    private void nextLine() {
+        pos++;
+        line++;
+    }
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + line + ": " + message);
+    }
+
+    // Growable parallel edge arrays; the vertex count is the DIMACS n or the largest id + 1.
+    static final class EdgeBuffer implements EdgeSink {
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        int[] weight = new int[1024];
+        int size;
+        int n = -1;
+        int maxVertex = -1;
+
+        @Override
+        public void begin(int n, long m) {
+            this.n = n;
+            if (m > from.length && m <= Integer.MAX_VALUE - 8) {
+                from = Arrays.copyOf(from, (int) m);
+                to = Arrays.copyOf(to, (int) m);
+                weight = Arrays.copyOf(weight, (int) m);
+            }
+        }
+
+        @Override
+        public void edge(int u, int v, int w) {
+            if (size == from.length) {
+                int capacity = size + (size >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size++] = w;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+        }
+
+        int vertexCount() {
+            return n >= 0 ? n : maxVertex + 1;
+        }
+    }
+
+    // Writes straight into the matrix once n is known; edges seen before that are buffered.
+    private static final class MatrixSink implements EdgeSink {
+        private final EdgeBuffer pending = new EdgeBuffer();
+        private int[] cells;
+        private int n;
+
+        @Override
+        public void begin(int n, long m) {
+            allocate(n);
+        }
+
+        @Override
+        public void edge(int u, int v, int w) {
+            if (cells == null) {
+                pending.edge(u, v, w);
+            } else {
+                put(u, v, w);
+            }
+        }
+
+        ArrayDistanceMatrix finish() throws IOException {
+            if (cells == null) {
+                if (pending.size == 0) throw new IOException("No edges");
+                allocate(pending.vertexCount());
+                for (int e = 0; e < pending.size; e++) {
+                    put(pending.from[e], pending.to[e], pending.weight[e]);
+                }
+            }
+            return new ArrayDistanceMatrix(cells, n);
+        }
+
+        private void allocate(int n) {
+            this.n = n;
+            cells = new int[n * n];
+            Arrays.fill(cells, INF);
+            for (int i = 0; i < n; i++) {
+                cells[i * n + i] = 0;
+            }
+        }
+
+        private void put(int u, int v, int w) {
+            int cell = u * n + v;
+            if (w < cells[cell]) cells[cell] = w;
+        }
+    }
+}
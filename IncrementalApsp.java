@@ -0,0 +1,363 @@
+import java.util.Arrays;
+
+// Repairs an existing all-pairs result after an edge weight changes, instead of
+// rerunning the cubic algorithm. Matrices are row-major int[] as in
+// BlockedFloydWarshall, and dist always matches what floydWarshall(graph) returns.
+//
+// A decrease is folded in with one O(n^2) pass through the changed edge. An
+// increase or deletion only invalidates rows whose shortest paths used the old
+// edge; those rows are rebuilt with an O(n^2) dense Dijkstra each. Too many
+// affected rows, or any negative weight (Dijkstra needs non-negative edges),
+// falls back to a full run of the engine.
+//
+// updateEdges repairs a whole batch at once: the increases share one set of
+// rebuilt rows, and the decreases are merged into one pivot pass per distinct
+// source vertex instead of one full pass per edge.
+public class IncrementalApsp {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    // Rebuilding more than this fraction of the rows costs more than a blocked run.
+    private static final int MAX_ROW_RECOMPUTE_DIVISOR = 4;
+
+    private final BlockedFloydWarshall engine;
+
+    public IncrementalApsp() {
+        this(new BlockedFloydWarshall());
+    }
+
+    public IncrementalApsp(BlockedFloydWarshall engine) {
+        this.engine = engine;
+    }
+
+    // Sets graph[u][v] = w and brings dist up to date.
+    public void updateEdge(int[] graph, int[] dist, int n, int u, int v, int w) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        BlockedFloydWarshall.checkSize(dist, n);
+        int old = graph[u * n + v];
+        if (old == w) return;
+        if (w < old) {
+            decreaseEdge(dist, n, u, v, w);
+            graph[u * n + v] = w;
+        } else {
+            graph[u * n + v] = w;
+            increaseEdge(graph, dist, n, u, v, old);
+        }
+    }
+
+    // dist[i][j] = min(dist[i][j], dist[i][u] + w + dist[v][j]) for every pair.
+    // Throws, leaving dist untouched, if the new edge closes a negative cycle.
+    public void decreaseEdge(int[] dist, int n, int u, int v, int w) {
+        if (w == INF) return;
+        // Empty prefix/suffix paths cost 0 even when the diagonal holds a positive self-loop.
+        int[] toU = column(dist, n, u);
+        if (toU[v] != INF && toU[v] + w < 0) {
+            throw new NegativeCycleException(u, new int[0]);
+        }
+        int[] fromV = Arrays.copyOfRange(dist, v * n, v * n + n);
+        fromV[v] = 0;
+        for (int i = 0; i < n; i++) {
+            int diu = toU[i];
+            if (diu == INF) continue;
+            int base = diu + w;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                int dvj = fromV[j];
+                if (dvj != INF && base + dvj < dist[row + j]) {
+                    dist[row + j] = base + dvj;
+                }
+            }
+        }
+    }
+
+    // Applies graph[from[e]][to[e]] = weight[e] for the first count entries, later
+    // entries winning, and brings dist up to date in one repair. Rows that used an
+    // increased edge are rebuilt on the graph with only the increases applied, which
+    // leaves dist exact for that graph. Each decreased edge u -> v then offers row u
+    // the paths starting with it, and one pivot pass per distinct u spreads those
+    // rows to everyone else: any new shortest path splits at the sources of the
+    // decreased edges it uses. Falls back to a full run when the rebuilt rows plus
+    // pivots cost more than MAX_ROW_RECOMPUTE_DIVISOR allows. On a negative cycle
+    // graph and dist are left as they were, and an edge outside [0, n) fails
+    // before anything is changed.
+    public void updateEdges(int[] graph, int[] dist, int n, int[] from, int[] to, int[] weight, int count) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        BlockedFloydWarshall.checkSize(dist, n);
+        if (count < 0 || count > from.length || count > to.length || count > weight.length) {
+            throw new IllegalArgumentException("Batch of " + count + " changes does not fit the edge arrays");
+        }
+        // Cell index in the high half and batch position in the low half: after
+        // sorting, the last key of each run of equal cells is the change that wins.
+        long[] keys = new long[count];
+        for (int e = 0; e < count; e++) {
+            int u = from[e];
+            int v = to[e];
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " is outside a graph of " + n + " vertices");
+            }
+            keys[e] = (long) (u * n + v) << 32 | e;
+        }
+        Arrays.sort(keys);
+
+        int[] cells = new int[count];
+        int[] oldWeights = new int[count];
+        int[] newWeights = new int[count];
+        int changed = 0;
+        for (int x = 0; x < count; x++) {
+            int cell = (int) (keys[x] >>> 32);
+            if (x + 1 < count && (int) (keys[x + 1] >>> 32) == cell) continue;
+            int w = weight[(int) keys[x]];
+            if (graph[cell] != w) {
+                cells[changed] = cell;
+                oldWeights[changed] = graph[cell];
+                newWeights[changed++] = w;
+            }
+        }
+        if (changed == 0) return;
+
+        int[] before = dist.clone();
+        try {
+            repair(graph, dist, n, cells, oldWeights, newWeights, changed);
+        } catch (NegativeCycleException e) {
+            for (int c = 0; c < changed; c++) {
+                graph[cells[c]] = oldWeights[c];
+            }
+            System.arraycopy(before, 0, dist, 0, dist.length);
+            throw e;
+        }
+    }
+
+    // Leaves graph holding every new weight.
+    private void repair(int[] graph, int[] dist, int n, int[] cells, int[] oldWeights, int[] newWeights, int changed) {
+        boolean[] affected = new boolean[n];
+        boolean[] pivot = new boolean[n];
+        int rows = 0;
+        int pivots = 0;
+        for (int c = 0; c < changed; c++) {
+            int u = cells[c] / n;
+            if (newWeights[c] > oldWeights[c]) {
+                graph[cells[c]] = newWeights[c];
+                if (oldWeights[c] != INF) rows += markRowsUsingEdge(dist, n, u, cells[c] % n, oldWeights[c], affected);
+            } else if (!pivot[u]) {
+                pivot[u] = true;
+                pivots++;
+            }
+        }
+        if ((rows + pivots) * MAX_ROW_RECOMPUTE_DIVISOR > n || (rows > 0 && hasNegativeWeight(graph))) {
+            for (int c = 0; c < changed; c++) {
+                graph[cells[c]] = newWeights[c];
+            }
+            recomputeAll(graph, dist, n);
+            return;
+        }
+
+        // graph has only the increases so far, and the rebuilt rows make dist exact for it.
+        boolean[] done = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (affected[i]) {
+                dijkstraRow(graph, dist, n, i, done);
+            }
+        }
+
+        for (int c = 0; c < changed; c++) {
+            int w = newWeights[c];
+            graph[cells[c]] = w;
+            if (w > oldWeights[c]) continue;
+            int uRow = cells[c] / n * n;
+            int v = cells[c] % n;
+            int vRow = v * n;
+            for (int j = 0; j < n; j++) {
+                int dvj = j == v ? 0 : dist[vRow + j];
+                if (dvj != INF && w + dvj < dist[uRow + j]) {
+                    dist[uRow + j] = w + dvj;
+                }
+            }
+        }
+        BlockedFloydWarshall.checkDiagonal(dist, n, null);
+        // A repair is not a run, so the kernel's relaxation counts are dropped
+        // rather than reported to ApspMetrics without matching cells.
+        MinPlusKernel kernel = engine.getKernel();
+        for (int k = 0; k < n; k++) {
+            if (!pivot[k]) continue;
+            int kRow = k * n;
+            for (int i = 0; i < n; i++) {
+                int dik = dist[i * n + k];
+                if (i == k || dik == INF) continue;
+                kernel.relaxRow(dist, i * n, kRow, dik, 0, n);
+            }
+            BlockedFloydWarshall.checkDiagonal(dist, n, null);
+        }
+    }
+
+    // graph already holds the new, larger weight of u -> v; oldWeight is what dist was built with.
+    public void increaseEdge(int[] graph, int[] dist, int n, int u, int v, int oldWeight) {
+        if (oldWeight == INF) return;
+        boolean[] affected = new boolean[n];
+        int count = markRowsUsingEdge(dist, n, u, v, oldWeight, affected);
+        recomputeRows(graph, dist, n, affected, count);
+    }
+
+    // Extends an n x n result by vertex n with edges n -> j weighing out[j] and
+    // i -> n weighing in[i] (INF for none), relaxing every pair through it once.
+    public int[] addNode(int[] dist, int n, int[] out, int[] in) {
+        BlockedFloydWarshall.checkSize(dist, n);
+        int m = n + 1;
+        int[] toX = new int[n];
+        int[] fromX = new int[n];
+        Arrays.fill(toX, INF);
+        Arrays.fill(fromX, INF);
+        for (int k = 0; k < n; k++) {
+            int wIn = in[k];
+            int wOut = out[k];
+            for (int i = 0; i < n; i++) {
+                int dik = i == k ? 0 : dist[i * n + k];
+                if (wIn != INF && dik != INF && dik + wIn < toX[i]) toX[i] = dik + wIn;
+                int dki = i == k ? 0 : dist[k * n + i];
+                if (wOut != INF && dki != INF && wOut + dki < fromX[i]) fromX[i] = wOut + dki;
+            }
+        }
+
+        int[] grown = new int[m * m];
+        int self = 0;
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            int newRow = i * m;
+            int via = toX[i];
+            for (int j = 0; j < n; j++) {
+                int dij = dist[row + j];
+                if (via != INF && fromX[j] != INF && via + fromX[j] < dij) dij = via + fromX[j];
+                grown[newRow + j] = dij;
+            }
+            grown[newRow + n] = via;
+            grown[n * m + i] = fromX[i];
+            if (via != INF && fromX[i] != INF && fromX[i] + via < self) self = fromX[i] + via;
+        }
+        grown[n * m + n] = self;
+        return grown;
+    }
+
+    // Drops vertex n - 1. Rows where it was an intermediate on some shortest path are
+    // rebuilt on the smaller graph; every other row is copied over unchanged.
+    public int[] removeLastNode(int[] graph, int[] dist, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        BlockedFloydWarshall.checkSize(dist, n);
+        int r = n - 1;
+        int[] smallGraph = new int[r * r];
+        int[] smallDist = new int[r * r];
+        for (int i = 0; i < r; i++) {
+            System.arraycopy(graph, i * n, smallGraph, i * r, r);
+            System.arraycopy(dist, i * n, smallDist, i * r, r);
+        }
+
+        boolean[] affected = new boolean[r];
+        int count = 0;
+        int rRow = r * n;
+        for (int i = 0; i < r; i++) {
+            int dir = dist[i * n + r];
+            if (dir == INF) continue;
+            int row = i * n;
+            for (int j = 0; j < r; j++) {
+                int drj = dist[rRow + j];
+                if (drj != INF && dir + drj == dist[row + j]) {
+                    affected[i] = true;
+                    count++;
+                    break;
+                }
+            }
+        }
+        recomputeRows(smallGraph, smallDist, r, affected, count);
+        return smallDist;
+    }
+
+    // Flags every row i with some j where the old edge lies on a shortest i -> j path.
+    int markRowsUsingEdge(int[] dist, int n, int u, int v, int weight, boolean[] affected) {
+        int[] toU = column(dist, n, u);
+        int vRow = v * n;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (affected[i] || toU[i] == INF) continue;
+            int base = toU[i] + weight;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                int dvj = j == v ? 0 : dist[vRow + j];
+                if (dvj != INF && base + dvj == dist[row + j]) {
+                    affected[i] = true;
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    void recomputeRows(int[] graph, int[] dist, int n, boolean[] affected, int count) {
+        if (count == 0) return;
+        if (count * MAX_ROW_RECOMPUTE_DIVISOR > n || hasNegativeWeight(graph)) {
+            recomputeAll(graph, dist, n);
+            return;
+        }
+        boolean[] done = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (affected[i]) {
+                dijkstraRow(graph, dist, n, i, done);
+            }
+        }
+    }
+
+    void recomputeAll(int[] graph, int[] dist, int n) {
+        System.arraycopy(graph, 0, dist, 0, n * n);
+        engine.floydWarshall(dist, n);
+    }
+
+    // Dense O(n^2) Dijkstra from source s written into row s. The diagonal keeps
+    // Floyd-Warshall's meaning: the cheapest closed walk, or graph[s][s] if smaller.
+    private static void dijkstraRow(int[] graph, int[] dist, int n, int s, boolean[] done) {
+        int row = s * n;
+        Arrays.fill(dist, row, row + n, INF);
+        Arrays.fill(done, false);
+        dist[row + s] = 0;
+        for (int step = 0; step < n; step++) {
+            int x = -1;
+            int best = INF;
+            for (int j = 0; j < n; j++) {
+                if (!done[j] && dist[row + j] < best) {
+                    best = dist[row + j];
+                    x = j;
+                }
+            }
+            if (x < 0) break;
+            done[x] = true;
+            int xRow = x * n;
+            for (int j = 0; j < n; j++) {
+                int w = graph[xRow + j];
+                if (w != INF && j != x && !done[j] && best + w < dist[row + j]) {
+                    dist[row + j] = best + w;
+                }
+            }
+        }
+        int cycle = graph[row + s];
+        for (int j = 0; j < n; j++) {
+            int w = graph[j * n + s];
+            if (j != s && w != INF && dist[row + j] != INF && dist[row + j] + w < cycle) {
+                cycle = dist[row + j] + w;
+            }
+        }
+        dist[row + s] = cycle;
+    }
+
+    static boolean hasNegativeWeight(int[] graph) {
+        for (int w : graph) {
+            if (w < 0) return true;
+        }
+        return false;
+    }
+
+    // Copy of column c with the diagonal cell replaced by the empty path.
+    private static int[] column(int[] dist, int n, int c) {
+        int[] col = new int[n];
+        for (int i = 0; i < n; i++) {
+            col[i] = dist[i * n + c];
+        }
+        col[c] = 0;
+        return col;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Arrays;
+
+// Indexed binary min-heap of vertex ids keyed by int, with decrease-key.
+// Backed by three int arrays sized once per worker; nothing is boxed.
+final class IntMinHeap {
+    private final int[] heap;
+    private final int[] pos;
+    private final int[] key;
+    private int size;
+
+    IntMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int minKey() {
+        return key[heap[0]];
+    }
+
+    // Inserts v, or lowers its key if it is already queued with a larger one.
+    void push(int v, int k) {
+        int i = pos[v];
+        if (i < 0) {
+            i = size++;
+            heap[i] = v;
+            pos[v] = i;
+        } else if (k >= key[v]) {
+            return;
+        }
+        key[v] = k;
+        siftUp(i);
+    }
+
+    int poll() {
+        int top = heap[0];
+        pos[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        int k = key[v];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (key[p] <= k) break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        int k = key[v];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = heap[child];
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[c]) {
+                child = right;
+                c = heap[child];
+            }
+            if (k <= key[c]) break;
+            heap[i] = c;
+            pos[c] = i;
+            i = child;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
@@ -0,0 +1,57 @@
+// Floyd-Warshall over long weights, for costs such as nanosecond latencies that
+// overflow an int. Cells stay within [-INF, INF], so a sum of two of them cannot
+// overflow; sums below -INF saturate there.
+public class LongFloydWarshall extends TypedFloydWarshall<long[]> {
+    public static final long INF = Long.MAX_VALUE / 2;
+
+    public LongFloydWarshall() {
+        this(BlockedFloydWarshall.DEFAULT_TILE_SIZE);
+    }
+
+    public LongFloydWarshall(int tileSize) {
+        super(tileSize);
+    }
+
+    // Widens an int matrix using BlockedFloydWarshall.INF for missing edges.
+    public static long[] fromInts(int[] cells) {
+        long[] out = new long[cells.length];
+        for (int c = 0; c < cells.length; c++) {
+            out[c] = cells[c] == BlockedFloydWarshall.INF ? INF : cells[c];
+        }
+        return out;
+    }
+
+    @Override
+    int length(long[] dist) {
+        return dist.length;
+    }
+
+    @Override
+    int negativeDiagonal(long[] dist, int n) {
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    void relax(long[] d, int n, int k0, int k1, int i0, int i1, int j0, int j1) {
+        for (int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for (int i = i0; i < i1; i++) {
+                int iRow = i * n;
+                long dik = d[iRow + k];
+                if (dik == INF) continue;
+                for (int j = j0; j < j1; j++) {
+                    long dkj = d[kRow + j];
+                    if (dkj != INF) {
+                        long sum = dik + dkj;
+                        if (sum < d[iRow + j]) {
+                            d[iRow + j] = Math.max(sum, -INF);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
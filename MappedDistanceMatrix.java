@@ -0,0 +1,113 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Matrix stored off-heap in a file mapped with FileChannel.map. Cells are
+// little-endian int32 in row-major order, starting at a byte offset so a header
+// can precede them. A single mapping is capped at 2 GB, so the file is mapped in
+// segments of whole rows; the OS pages them in and out as they are touched.
+public class MappedDistanceMatrix implements DistanceMatrix, AutoCloseable {
+    private static final int MAX_SEGMENT_BYTES = Integer.MAX_VALUE - 7;
+
+    private final FileChannel channel;
+    private final int n;
+    private final int rowsPerSegment;
+    private final MappedByteBuffer[] mappings;
+    private final IntBuffer[] segments;
+
+    private MappedDistanceMatrix(FileChannel channel, FileChannel.MapMode mode, long offset, int n) throws IOException {
+        if (n < 1) {
+            throw new IllegalArgumentException("Matrix size must be positive: " + n);
+        }
+        this.channel = channel;
+        this.n = n;
+        long rowBytes = 4L * n;
+        this.rowsPerSegment = (int) Math.max(1, Math.min(n, MAX_SEGMENT_BYTES / rowBytes));
+        int count = (n + rowsPerSegment - 1) / rowsPerSegment;
+        this.mappings = new MappedByteBuffer[count];
+        this.segments = new IntBuffer[count];
+        for (int s = 0; s < count; s++) {
+            int rows = Math.min(rowsPerSegment, n - s * rowsPerSegment);
+            mappings[s] = channel.map(mode, offset + s * rowsPerSegment * rowBytes, rows * rowBytes);
+            mappings[s].order(ByteOrder.LITTLE_ENDIAN);
+            segments[s] = mappings[s].asIntBuffer();
+        }
+    }
+
+    // Creates (or truncates) a file holding an n x n matrix with 0 on the diagonal and INF elsewhere.
+    public static MappedDistanceMatrix create(Path file, int n) throws IOException {
+        return create(file, 0, n);
+    }
+
+    public static MappedDistanceMatrix create(Path file, long offset, int n) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        MappedDistanceMatrix matrix = new MappedDistanceMatrix(channel, FileChannel.MapMode.READ_WRITE, offset, n);
+        int[] row = new int[n];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(row, INF);
+            row[i] = 0;
+            matrix.writeRows(i, 1, row, 0);
+        }
+        return matrix;
+    }
+
+    // Maps an existing file read-write, so engines can update it in place.
+    public static MappedDistanceMatrix open(Path file, long offset, int n) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new MappedDistanceMatrix(channel, FileChannel.MapMode.READ_WRITE, offset, n);
+    }
+
+    public static MappedDistanceMatrix openReadOnly(Path file, long offset, int n) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new MappedDistanceMatrix(channel, FileChannel.MapMode.READ_ONLY, offset, n);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return segments[i / rowsPerSegment].get((i % rowsPerSegment) * n + j);
+    }
+
+    @Override
+    public void set(int i, int j, int value) {
+        segments[i / rowsPerSegment].put((i % rowsPerSegment) * n + j, value);
+    }
+
+    @Override
+    public void readRows(int row, int count, int[] dst, int off) {
+        for (int i = row; i < row + count; i++, off += n) {
+            segments[i / rowsPerSegment].get((i % rowsPerSegment) * n, dst, off, n);
+        }
+    }
+
+    @Override
+    public void writeRows(int row, int count, int[] src, int off) {
+        for (int i = row; i < row + count; i++, off += n) {
+            segments[i / rowsPerSegment].put((i % rowsPerSegment) * n, src, off, n);
+        }
+    }
+
+    public void force() {
+        if (channel.isOpen()) {
+            for (MappedByteBuffer mapping : mappings) {
+                if (!mapping.isReadOnly()) mapping.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary on-disk matrix. A 32-byte little-endian header:
+//
+//   0  magic "APSP"      4  version (u16)     6  flags (u16, bit 0 = compressed)
+//   8  n (i32)          12  cell width in bytes (i32, 4 for int)
+//  16  INF sentinel (i64)                    24  reserved
+//
+// Plain files follow with n * n little-endian int32 cells in row-major order, so
+// map() opens them as a MappedDistanceMatrix with no parsing at all. Compressed
+// files follow with n + 1 row offsets (i64, relative to the end of the offset
+// table) and one varint stream per row: 0 for INF, otherwise the zigzag delta
+// from the previous finite cell in that row, plus one.
+public final class MatrixFile {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    public static final int HEADER_BYTES = 32;
+    public static final int FLAG_COMPRESSED = 1;
+    private static final int MAGIC = 'A' | 'P' << 8 | 'S' << 16 | 'P' << 24;
+    private static final int VERSION = 1;
+    private static final int CELL_BYTES = 4;
+
+    private MatrixFile() {
+    }
+
+    public static boolean isMatrixFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            return channel.read(magic, 0) == 4 && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    public static void write(Path file, DistanceMatrix matrix, boolean compress) throws IOException {
+        int n = matrix.size();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header(n, compress ? FLAG_COMPRESSED : 0));
+            if (compress) {
+                writeCompressed(channel, matrix);
+            } else {
+                writePlain(channel, matrix);
+            }
+        }
+    }
+
+    // Zero-copy view of a plain file; the caller closes it.
+    public static MappedDistanceMatrix map(Path file) throws IOException {
+        int[] header = readHeader(file);
+        if ((header[1] & FLAG_COMPRESSED) != 0) {
+            throw new IOException(file + " is compressed and cannot be mapped; use read()");
+        }
+        return MappedDistanceMatrix.openReadOnly(file, HEADER_BYTES, header[0]);
+    }
+
+    // Heap copy of a plain or compressed file.
+    public static ArrayDistanceMatrix read(Path file) throws IOException {
+        int[] header = readHeader(file);
+        int n = header[0];
+        int[] cells = new int[n * n];
+        if ((header[1] & FLAG_COMPRESSED) == 0) {
+            try (MappedDistanceMatrix mapped = MappedDistanceMatrix.openReadOnly(file, HEADER_BYTES, n)) {
+                mapped.readRows(0, n, cells, 0);
+            }
+        } else {
+            readCompressed(file, n, cells);
+        }
+        return new ArrayDistanceMatrix(cells, n);
+    }
+
+    // Returns {n, flags} after validating the header.
+    private static int[] readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(header, 0) != HEADER_BYTES || header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a matrix file");
+            }
+            int version = header.getShort(4) & 0xFFFF;
+            int flags = header.getShort(6) & 0xFFFF;
+            int n = header.getInt(8);
+            if (version != VERSION) {
+                throw new IOException(file + ": unsupported version " + version);
+            }
+            if (header.getInt(12) != CELL_BYTES || header.getLong(16) != INF) {
+                throw new IOException(file + ": expected int32 cells with INF " + INF);
+            }
+            if (n < 1) {
+                throw new IOException(file + ": bad matrix size " + n);
+            }
+            return new int[] {n, flags};
+        }
+    }
+
+    private static ByteBuffer header(int n, int flags) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort((short) VERSION).putShort((short) flags)
+                .putInt(n).putInt(CELL_BYTES).putLong(INF);
+        header.clear();
+        return header;
+    }
+
+    private static void writePlain(FileChannel channel, DistanceMatrix matrix) throws IOException {
+        int n = matrix.size();
+        int rowsPerChunk = Math.max(1, (1 << 20) / n);
+        int[] rows = new int[rowsPerChunk * n];
+        ByteBuffer bytes = ByteBuffer.allocateDirect(rows.length * CELL_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = bytes.asIntBuffer();
+        for (int i = 0; i < n; i += rowsPerChunk) {
+            int count = Math.min(rowsPerChunk, n - i);
+            matrix.readRows(i, count, rows, 0);
+            ints.clear();
+            ints.put(rows, 0, count * n);
+            bytes.clear().limit(count * n * CELL_BYTES);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    private static void writeCompressed(FileChannel channel, DistanceMatrix matrix) throws IOException {
+        int n = matrix.size();
+        long tableStart = HEADER_BYTES;
+        long dataStart = tableStart + 8L * (n + 1);
+        ByteBuffer offsets = ByteBuffer.allocate(8 * (n + 1)).order(ByteOrder.LITTLE_ENDIAN);
+        int[] row = new int[n];
+        // Worst case is a 10-byte varint per cell.
+        ByteBuffer encoded = ByteBuffer.allocate(10 * n);
+        long position = 0;
+        for (int i = 0; i < n; i++) {
+            offsets.putLong(position);
+            matrix.readRows(i, 1, row, 0);
+            encoded.clear();
+            int previous = 0;
+            for (int j = 0; j < n; j++) {
+                int value = row[j];
+                if (value == INF) {
+                    encoded.put((byte) 0);
+                } else {
+                    long delta = (long) value - previous;
+                    putVarint(encoded, ((delta << 1) ^ (delta >> 63)) + 1);
+                    previous = value;
+                }
+            }
+            encoded.flip();
+            while (encoded.hasRemaining()) {
+                position += channel.write(encoded, dataStart + position);
+            }
+        }
+        offsets.putLong(position);
+        offsets.flip();
+        while (offsets.hasRemaining()) {
+            channel.write(offsets, tableStart + offsets.position());
+        }
+    }
+
+    private static void readCompressed(Path file, int n, int[] cells) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long dataStart = HEADER_BYTES + 8L * (n + 1);
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 8L * (n + 1));
+            table.order(ByteOrder.LITTLE_ENDIAN);
+            long dataBytes = table.getLong(8 * n);
+            // One mapping for the whole payload when it fits, otherwise one per row.
+            MappedByteBuffer data = dataBytes <= Integer.MAX_VALUE
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, dataStart, dataBytes) : null;
+            for (int i = 0; i < n; i++) {
+                long from = table.getLong(8 * i);
+                long to = table.getLong(8 * (i + 1));
+                ByteBuffer rowBytes = data != null
+                        ? data.position((int) from)
+                        : channel.map(FileChannel.MapMode.READ_ONLY, dataStart + from, to - from);
+                long previous = 0;
+                int base = i * n;
+                for (int j = 0; j < n; j++) {
+                    long token = getVarint(rowBytes);
+                    if (token == 0) {
+                        cells[base + j] = INF;
+                    } else {
+                        long zigzag = token - 1;
+                        previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                        cells[base + j] = (int) previous;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7FL) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
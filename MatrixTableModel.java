@@ -0,0 +1,98 @@
+import javax.swing.table.AbstractTableModel;
+
+// Table model that reads cells straight out of a DistanceMatrix. Nothing is boxed
+// or stored per cell: JTable only asks for the visible cells, and each one is
+// formatted when it is painted. Swapping in a new matrix fires a single event.
+public class MatrixTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    private final boolean editable;
+    private DistanceMatrix matrix;
+    private int size;
+
+    public MatrixTableModel(boolean editable) {
+        this.editable = editable;
+    }
+
+    public DistanceMatrix getMatrix() {
+        return matrix;
+    }
+
+    // Shows matrix without copying it; edits (if enabled) are written through.
+    public void setMatrix(DistanceMatrix matrix) {
+        this.matrix = matrix;
+        update(matrix.size());
+    }
+
+    // An n x n table of blank cells, for a result that has not been computed yet.
+    public void clear(int n) {
+        this.matrix = null;
+        update(n);
+    }
+
+    // Called once matrix is already in place, so listeners never see the new size
+    // over the old data. A structure change implies a data change.
+    private void update(int n) {
+        if (n != size) {
+            size = n;
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return size;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return String.valueOf(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (matrix == null) return "";
+        int value = matrix.get(row, column);
+        return value == INF ? "∞" : Integer.toString(value);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return editable && matrix != null;
+    }
+
+    // Anything that is not a weight is ignored here; the GUI's cell editor rejects
+    // it with a message before it gets this far.
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        int weight;
+        try {
+            weight = parseWeight(value != null ? value.toString() : "");
+        } catch (NumberFormatException e) {
+            return;
+        }
+        matrix.set(row, column, weight);
+        fireTableCellUpdated(row, column);
+    }
+
+    // Blank, "∞" and "INF" mean no edge.
+    static int parseWeight(String text) {
+        text = text.trim();
+        if (text.isEmpty() || text.equals("∞") || text.equalsIgnoreCase("INF")) return INF;
+        return Integer.parseInt(text);
+    }
+}
@@ -0,0 +1,79 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+
+// Plain-text adjacency/distance matrices: one row per line, cells separated by
+// whitespace, "∞" or "INF" for no edge (the layout formatMatrix prints).
+public final class MatrixText {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    private MatrixText() {
+    }
+
+    // Reads rows until end of input; the first row fixes n.
+    public static ArrayDistanceMatrix read(Reader in) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        int[] cells = new int[0];
+        int n = -1;
+        int rows = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens.length == 1 && tokens[0].isEmpty()) continue;
+            if (n < 0) {
+                n = tokens.length;
+                cells = new int[n * n];
+            }
+            if (tokens.length != n || rows == n) {
+                throw new IOException("Row " + (rows + 1) + " does not fit a " + n + "x" + n + " matrix");
+            }
+            for (int j = 0; j < n; j++) {
+                cells[rows * n + j] = parseCell(tokens[j]);
+            }
+            rows++;
+        }
+        if (n < 0) {
+            throw new IOException("Empty matrix");
+        }
+        if (rows != n) {
+            throw new IOException("Expected " + n + " rows but read " + rows);
+        }
+        return new ArrayDistanceMatrix(cells, n);
+    }
+
+    static int parseCell(String token) throws IOException {
+        if (token.equals("∞") || token.equalsIgnoreCase("INF")) return INF;
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IOException("Not a weight: " + token);
+        }
+    }
+
+    // Same layout as formatMatrix (cells left-aligned in 6 columns) without String.format.
+    public static void write(Writer out, int[] cells, int n) throws IOException {
+        ApspPhaseEvent output = ApspPhaseEvent.start(ApspPhaseEvent.OUTPUT, n);
+        char[] pad = new char[6];
+        Arrays.fill(pad, ' ');
+        StringBuilder row = new StringBuilder(n * 7);
+        for (int i = 0; i < n; i++) {
+            row.setLength(0);
+            for (int j = 0; j < n; j++) {
+                int start = row.length();
+                int value = cells[i * n + j];
+                if (value == INF) {
+                    row.append('∞');
+                } else {
+                    row.append(value);
+                }
+                int width = row.length() - start;
+                if (width < 6) row.append(pad, 0, 6 - width);
+            }
+            row.append('\n');
+            out.append(row);
+        }
+        output.finish();
+    }
+}
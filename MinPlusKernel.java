@@ -0,0 +1,29 @@
+// Inner min-plus step of the blocked engine: for j in [from, to),
+// d[row + j] = min(d[row + j], dik + d[kRow + j]), leaving INF cells of row k alone.
+// Callers skip rows whose dik is INF before calling in. Returns how many cells
+// were lowered when ApspMetrics is on, and 0 otherwise; callers add it up per
+// tile and report it together with their cell counts.
+public interface MinPlusKernel {
+    int INF = Integer.MAX_VALUE / 2;
+
+    int relaxRow(int[] d, int row, int kRow, int dik, int from, int to);
+
+    // Same step with row k read from pivot instead of d, for engines that keep the
+    // pivot rows outside the matrix they update.
+    int relaxRow(int[] d, int row, int[] pivot, int kRow, int dik, int from, int to);
+
+    // The Vector API kernel when jdk.incubator.vector is resolved at runtime
+    // (--add-modules jdk.incubator.vector), otherwise the scalar loop.
+    // -Dapsp.kernel=scalar forces the scalar loop.
+    static MinPlusKernel best() {
+        if (!"scalar".equals(System.getProperty("apsp.kernel"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (MinPlusKernel) Class.forName("VectorMinPlusKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall through to the scalar loop
+            }
+        }
+        return ScalarMinPlusKernel.INSTANCE;
+    }
+}
@@ -0,0 +1,37 @@
+// Thrown when the graph has a cycle of negative total weight, so shortest
+// distances are undefined. cycle() lists its vertices in order, the last one
+// leading back to the first; it is empty when the engine ran without successor
+// tracking, or when the successors led to no cycle that checks out against the
+// input weights, and only a vertex on the cycle is known.
+public class NegativeCycleException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int vertex;
+    private final int[] cycle;
+
+    public NegativeCycleException(int vertex, int[] cycle) {
+        super(message(vertex, cycle));
+        this.vertex = vertex;
+        this.cycle = cycle;
+    }
+
+    public int vertex() {
+        return vertex;
+    }
+
+    public int[] cycle() {
+        return cycle.clone();
+    }
+
+    private static String message(int vertex, int[] cycle) {
+        StringBuilder sb = new StringBuilder("Graph contains a negative cycle through vertex ").append(vertex);
+        if (cycle.length > 0) {
+            sb.append(": ");
+            for (int v : cycle) {
+                sb.append(v).append(" -> ");
+            }
+            sb.append(cycle[0]);
+        }
+        return sb.toString();
+    }
+}
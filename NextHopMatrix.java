@@ -0,0 +1,202 @@
+import java.util.Arrays;
+
+// Successor matrix for path reconstruction: get(i, j) is the vertex after i on a
+// shortest i -> j path, or -1 when j is unreachable. Cells use the narrowest type
+// that can hold n - 1 (byte up to 127 vertices, short up to 32767, int beyond).
+public abstract class NextHopMatrix {
+    public static final int NONE = -1;
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    final int n;
+
+    NextHopMatrix(int n) {
+        this.n = n;
+    }
+
+    public static NextHopMatrix allocate(int n) {
+        if (n <= Byte.MAX_VALUE) return new ByteHops(n);
+        if (n <= Short.MAX_VALUE) return new ShortHops(n);
+        return new IntHops(n);
+    }
+
+    // Direct successors of a row-major adjacency matrix: j for every edge i -> j, i on the diagonal.
+    public static NextHopMatrix fromGraph(int[] graph, int n) {
+        NextHopMatrix next = allocate(n);
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                next.set(i, j, i == j ? i : graph[row + j] != INF ? j : NONE);
+            }
+        }
+        return next;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public abstract int get(int i, int j);
+
+    public abstract void set(int i, int j, int hop);
+
+    // Bytes of successor storage, for sizing against the distance matrix.
+    public abstract long byteSize();
+
+    // The closed walk i -> k -> i along the successors, without repeating i at the
+    // end. If a leg loops back on itself instead, that loop is returned; empty if a
+    // leg is unreachable. Only a candidate: once the blocked schedule has lowered
+    // cells behind their successors, the walk can repeat vertices or even weigh
+    // more than zero, so negativeCycle checks it against the input weights.
+    int[] cycleThrough(int i, int k) {
+        int[] seenAt = new int[n];
+        int[] order = new int[2 * n];
+        int len = 0;
+        for (int leg = 0; leg < 2; leg++) {
+            int from = leg == 0 ? i : k;
+            int to = leg == 0 ? k : i;
+            Arrays.fill(seenAt, -1);
+            for (int x = from; x != to; x = get(x, to)) {
+                if (x == NONE) return new int[0];
+                if (seenAt[x] >= 0) return Arrays.copyOfRange(order, seenAt[x], len);
+                seenAt[x] = len;
+                order[len++] = x;
+            }
+        }
+        return Arrays.copyOf(order, len);
+    }
+
+    // A simple cycle of negative weight in the input weights, found along the
+    // successors: first in the engine's candidate walk, then in the successor walks
+    // from vertex that loop before reaching their target. Empty if none has one.
+    int[] negativeCycle(int[] weights, int vertex, int[] walk) {
+        int[] cycle = negativeCycleIn(weights, walk);
+        for (int t = 0; cycle.length == 0 && t < n; t++) {
+            cycle = negativeCycleIn(weights, loopTowards(vertex, (vertex + t) % n));
+        }
+        return cycle;
+    }
+
+    // The loop the successor walk from start towards to runs into, or empty if the
+    // walk arrives or breaks off first. With to == start the whole walk is the loop.
+    private int[] loopTowards(int start, int to) {
+        int[] seenAt = new int[n];
+        Arrays.fill(seenAt, -1);
+        int[] order = new int[n];
+        int len = 0;
+        int x = start;
+        while (seenAt[x] < 0) {
+            seenAt[x] = len;
+            order[len++] = x;
+            x = get(x, to);
+            if (x == NONE || x == to && to != start) return new int[0];
+        }
+        return Arrays.copyOfRange(order, seenAt[x], len);
+    }
+
+    // Splits the closed walk into simple cycles as vertices repeat and returns the
+    // first one of negative weight. A negative walk always contains one.
+    private int[] negativeCycleIn(int[] weights, int[] walk) {
+        int[] seenAt = new int[n];
+        Arrays.fill(seenAt, -1);
+        int[] stack = new int[walk.length];
+        int len = 0;
+        for (int s = 0; s < walk.length + (walk.length > 0 ? 1 : 0); s++) {
+            int x = walk[s % walk.length];
+            int at = seenAt[x];
+            if (at < 0) {
+                seenAt[x] = len;
+                stack[len++] = x;
+                continue;
+            }
+            if (cycleWeight(weights, stack, at, len) < 0) return Arrays.copyOfRange(stack, at, len);
+            for (int p = at + 1; p < len; p++) {
+                seenAt[stack[p]] = -1;
+            }
+            len = at + 1;
+        }
+        return new int[0];
+    }
+
+    // Total of cycle[from, to) closed back to cycle[from]; Long.MAX_VALUE if an edge is missing.
+    private long cycleWeight(int[] weights, int[] cycle, int from, int to) {
+        long total = 0;
+        for (int p = from; p < to; p++) {
+            int w = weights[cycle[p] * n + cycle[p + 1 < to ? p + 1 : from]];
+            if (w == INF) return Long.MAX_VALUE;
+            total += w;
+        }
+        return total;
+    }
+
+    private static final class ByteHops extends NextHopMatrix {
+        private final byte[] hops;
+
+        ByteHops(int n) {
+            super(n);
+            hops = new byte[n * n];
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return hops[i * n + j];
+        }
+
+        @Override
+        public void set(int i, int j, int hop) {
+            hops[i * n + j] = (byte) hop;
+        }
+
+        @Override
+        public long byteSize() {
+            return hops.length;
+        }
+    }
+
+    private static final class ShortHops extends NextHopMatrix {
+        private final short[] hops;
+
+        ShortHops(int n) {
+            super(n);
+            hops = new short[n * n];
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return hops[i * n + j];
+        }
+
+        @Override
+        public void set(int i, int j, int hop) {
+            hops[i * n + j] = (short) hop;
+        }
+
+        @Override
+        public long byteSize() {
+            return 2L * hops.length;
+        }
+    }
+
+    private static final class IntHops extends NextHopMatrix {
+        private final int[] hops;
+
+        IntHops(int n) {
+            super(n);
+            hops = new int[n * n];
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return hops[i * n + j];
+        }
+
+        @Override
+        public void set(int i, int j, int hop) {
+            hops[i * n + j] = hop;
+        }
+
+        @Override
+        public long byteSize() {
+            return 4L * hops.length;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// Floyd-Warshall over any DistanceMatrix, holding only two strips of rows on the
+// heap: the pivot strip [k0, k0 + h) and the strip being relaxed against it.
+// Each round reads and writes the matrix once, strip by strip in row order, so a
+// mapped file larger than RAM is streamed sequentially instead of paged at random.
+// The matrix is updated in place; no second n x n copy is made.
+public class OutOfCoreFloydWarshall {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    public static final int DEFAULT_STRIP_HEIGHT = 64;
+
+    private final int stripHeight;
+    private final MinPlusKernel kernel;
+
+    public OutOfCoreFloydWarshall() {
+        this(DEFAULT_STRIP_HEIGHT, MinPlusKernel.best());
+    }
+
+    public OutOfCoreFloydWarshall(int stripHeight, MinPlusKernel kernel) {
+        if (stripHeight < 1) {
+            throw new IllegalArgumentException("Strip height must be positive: " + stripHeight);
+        }
+        this.stripHeight = stripHeight;
+        this.kernel = kernel;
+    }
+
+    public void floydWarshall(DistanceMatrix matrix) {
+        int n = matrix.size();
+        ApspRunEvent event = ApspRunEvent.start("OutOfCoreFloydWarshall", n, stripHeight);
+        boolean completed = false;
+        try {
+            rounds(matrix, n);
+            completed = true;
+        } finally {
+            event.finish(completed);
+        }
+    }
+
+    private void rounds(DistanceMatrix matrix, int n) {
+        int h = Math.min(stripHeight, n);
+        // Pivot strip in the first h * n cells, working strip in the second.
+        int[] buf = new int[2 * h * n];
+        int work = h * n;
+
+        for (int k0 = 0; k0 < n; k0 += h) {
+            int k1 = Math.min(k0 + h, n);
+            ApspPivotBatchEvent batch = new ApspPivotBatchEvent();
+            batch.begin();
+            matrix.readRows(k0, k1 - k0, buf, 0);
+            // Diagonal and pivot-row tiles: plain Floyd-Warshall inside the pivot strip.
+            relaxStrip(buf, 0, k1 - k0, 0, k0, k1, n);
+            checkDiagonal(buf, 0, k0, k1 - k0, n);
+            matrix.writeRows(k0, k1 - k0, buf, 0);
+
+            for (int i0 = 0; i0 < n; i0 += h) {
+                if (i0 == k0) continue;
+                int rows = Math.min(h, n - i0);
+                matrix.readRows(i0, rows, buf, work);
+                relaxStrip(buf, work, rows, 0, k0, k1, n);
+                checkDiagonal(buf, work, i0, rows, n);
+                matrix.writeRows(i0, rows, buf, work);
+            }
+            batch.finish(k0, k1, n);
+        }
+    }
+
+    // Stops at the first strip whose diagonal goes negative instead of finishing the pass.
+    private static void checkDiagonal(int[] buf, int base, int row0, int rows, int n) {
+        for (int r = 0; r < rows; r++) {
+            if (buf[base + r * n + row0 + r] < 0) {
+                throw new NegativeCycleException(row0 + r, new int[0]);
+            }
+        }
+    }
+
+    // Rows of the strip at base relax through pivots [k0, k1) whose rows sit at pivotBase.
+    private void relaxStrip(int[] buf, int base, int rows, int pivotBase, int k0, int k1, int n) {
+        int skipped = 0;
+        int improved = 0;
+        for (int k = k0; k < k1; k++) {
+            int kRow = pivotBase + (k - k0) * n;
+            for (int r = 0; r < rows; r++) {
+                int row = base + r * n;
+                int dik = buf[row + k];
+                if (dik == INF) {
+                    if (ApspMetrics.ENABLED) skipped++;
+                    continue;
+                }
+                improved += kernel.relaxRow(buf, row, kRow, dik, 0, n);
+            }
+        }
+        if (ApspMetrics.ENABLED) {
+            ApspMetrics.tile(((long) (k1 - k0) * rows - skipped) * n, skipped, improved);
+        }
+    }
+}
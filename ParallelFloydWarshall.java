@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// Blocked Floyd-Warshall with the tiles of each round spread over a ForkJoinPool.
+// Rounds run one after another; inside a round only the diagonal tile is a hard
+// barrier. Pivot-row tiles are forked right after it, and each row strip joins
+// just the pivot-row tiles it reads once its own pivot-column tile is done.
+public class ParallelFloydWarshall extends BlockedFloydWarshall {
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    public ParallelFloydWarshall() {
+        this(DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelFloydWarshall(int tileSize, int parallelism) {
+        super(tileSize);
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+    }
+
+    public ParallelFloydWarshall(int tileSize, ForkJoinPool pool) {
+        this(tileSize, MinPlusKernel.best(), pool);
+    }
+
+    public ParallelFloydWarshall(int tileSize, MinPlusKernel kernel, ForkJoinPool pool) {
+        super(tileSize, kernel);
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // The listener runs on a pool thread between rounds, while no tile task is live.
+    @Override
+    boolean rounds(int[] dist, int n, NextHopMatrix next, PivotListener listener) {
+        checkDiagonal(dist, n, next);
+        return pool.invoke(new RecursiveTask<Boolean>() {
+            @Override
+            protected Boolean compute() {
+                int blocks = blockCount(n);
+                for (int kb = 0; kb < blocks; kb++) {
+                    ApspPivotBatchEvent batch = new ApspPivotBatchEvent();
+                    batch.begin();
+                    round(dist, next, n, kb, blocks);
+                    checkDiagonal(dist, n, next);
+                    int done = Math.min((kb + 1) * getTileSize(), n);
+                    batch.finish(kb * getTileSize(), done, n);
+                    if (listener != null && !listener.pivotsDone(done, n, dist)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+    }
+
+    private void round(int[] d, NextHopMatrix next, int n, int kb, int blocks) {
+        int t = getTileSize();
+        int k0 = kb * t;
+        int k1 = Math.min(k0 + t, n);
+
+        relax(d, next, n, k0, k1, k0, k1, k0, k1);
+
+        ForkJoinTask<?>[] pivotRow = new ForkJoinTask<?>[blocks];
+        for (int b = 0; b < blocks; b++) {
+            if (b == kb) continue;
+            int j0 = b * t;
+            int j1 = Math.min(j0 + t, n);
+            pivotRow[b] = ForkJoinTask.adapt(() -> relax(d, next, n, k0, k1, k0, k1, j0, j1)).fork();
+        }
+
+        List<ForkJoinTask<?>> strips = new ArrayList<>(blocks);
+        for (int ib = 0; ib < blocks; ib++) {
+            if (ib == kb) continue;
+            int i0 = ib * t;
+            int i1 = Math.min(i0 + t, n);
+            strips.add(ForkJoinTask.adapt(() -> {
+                relax(d, next, n, k0, k1, i0, i1, k0, k1); // pivot column
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb == kb) continue;
+                    pivotRow[jb].join();
+                    int j0 = jb * t;
+                    relax(d, next, n, k0, k1, i0, i1, j0, Math.min(j0 + t, n));
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(strips);
+
+        for (ForkJoinTask<?> task : pivotRow) {
+            if (task != null) task.join();
+        }
+    }
+
+    // Only shuts down a pool this instance created itself.
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+}
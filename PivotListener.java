@@ -0,0 +1,6 @@
+// Called by BlockedFloydWarshall after each round of pivots. At that point every
+// cell of dist holds the shortest distance using only intermediates [0, done),
+// so the matrix is a valid partial result. Return false to stop the run early.
+public interface PivotListener {
+    boolean pivotsDone(int done, int n, int[] dist);
+}
@@ -0,0 +1,67 @@
+// Boolean n x n matrix with each row packed into ceil(n / 64) longs: bit j of row
+// i says whether j is reachable from i. 1/32 of the memory of an int matrix.
+public class ReachabilityMatrix {
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    final int n;
+    final int words;
+    final long[] bits;
+
+    public ReachabilityMatrix(int n) {
+        int words = (n + 63) >>> 6;
+        if (n < 0 || (long) n * words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported size: " + n);
+        }
+        this.n = n;
+        this.words = words;
+        this.bits = new long[n * words];
+    }
+
+    // A bit for every cell that is not INF, diagonal included, so the closure
+    // agrees with testing floydWarshall's result against INF.
+    public static ReachabilityMatrix fromGraph(int[] graph, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        ReachabilityMatrix m = new ReachabilityMatrix(n);
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                if (graph[row + j] != INF) m.set(i, j);
+            }
+        }
+        return m;
+    }
+
+    // Same, without a dense matrix: one bit per edge plus the diagonal, which CsrGraph
+    // keeps at 0 unless a self-loop says otherwise.
+    public static ReachabilityMatrix fromGraph(CsrGraph g) {
+        ReachabilityMatrix m = new ReachabilityMatrix(g.n);
+        for (int v = 0; v < g.n; v++) {
+            if (g.selfLoops[v] != INF) m.set(v, v);
+            for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+                m.set(v, g.targets[e]);
+            }
+        }
+        return m;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean reachable(int i, int j) {
+        return (bits[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    public void set(int i, int j) {
+        bits[i * words + (j >>> 6)] |= 1L << j;
+    }
+
+    // Number of vertices reachable from i.
+    public int count(int i) {
+        int c = 0;
+        for (int w = i * words, end = w + words; w < end; w++) {
+            c += Long.bitCount(bits[w]);
+        }
+        return c;
+    }
+}
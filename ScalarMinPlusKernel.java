@@ -0,0 +1,24 @@
+public final class ScalarMinPlusKernel implements MinPlusKernel {
+    public static final ScalarMinPlusKernel INSTANCE = new ScalarMinPlusKernel();
+
+    private ScalarMinPlusKernel() {
+    }
+
+    @Override
+    public int relaxRow(int[] d, int row, int kRow, int dik, int from, int to) {
+        return relaxRow(d, row, d, kRow, dik, from, to);
+    }
+
+    @Override
+    public int relaxRow(int[] d, int row, int[] pivot, int kRow, int dik, int from, int to) {
+        int improved = 0;
+        for (int j = from; j < to; j++) {
+            int dkj = pivot[kRow + j];
+            if (dkj != INF && dik + dkj < d[row + j]) {
+                d[row + j] = dik + dkj;
+                if (ApspMetrics.ENABLED) improved++;
+            }
+        }
+        return improved;
+    }
+}
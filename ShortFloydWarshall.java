@@ -0,0 +1,81 @@
+// Floyd-Warshall over short weights: half the memory traffic of the int engine,
+// for hop counts and other small costs. Sums are taken in int and only stored
+// when they beat the current cell, so they cannot overflow upwards and INF can
+// be the full Short.MAX_VALUE. Sums below Short.MIN_VALUE saturate there.
+public class ShortFloydWarshall extends TypedFloydWarshall<short[]> {
+    public static final short INF = Short.MAX_VALUE;
+
+    public ShortFloydWarshall() {
+        this(BlockedFloydWarshall.DEFAULT_TILE_SIZE);
+    }
+
+    public ShortFloydWarshall(int tileSize) {
+        super(tileSize);
+    }
+
+    // Narrows an int matrix using BlockedFloydWarshall.INF for missing edges.
+    public static short[] fromInts(int[] cells) {
+        short[] out = new short[cells.length];
+        for (int c = 0; c < cells.length; c++) {
+            int w = cells[c];
+            if (w == BlockedFloydWarshall.INF) {
+                out[c] = INF;
+            } else if (w >= INF || w < Short.MIN_VALUE) {
+                throw new IllegalArgumentException("Weight " + w + " does not fit in a short");
+            } else {
+                out[c] = (short) w;
+            }
+        }
+        return out;
+    }
+
+    public static int[] toInts(short[] cells) {
+        int[] out = new int[cells.length];
+        for (int c = 0; c < cells.length; c++) {
+            out[c] = cells[c] == INF ? BlockedFloydWarshall.INF : cells[c];
+        }
+        return out;
+    }
+
+    @Override
+    int length(short[] dist) {
+        return dist.length;
+    }
+
+    @Override
+    int negativeDiagonal(short[] dist, int n) {
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    void relax(short[] d, int n, int k0, int k1, int i0, int i1, int j0, int j1) {
+        for (int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for (int i = i0; i < i1; i++) {
+                int iRow = i * n;
+                int dik = d[iRow + k];
+                if (dik == INF) continue;
+                if (dik >= 0) {
+                    // dik + INF >= INF never beats a cell, so no sentinel test is needed
+                    // and the branch-free min can be vectorized by the JIT.
+                    for (int j = j0; j < j1; j++) {
+                        d[iRow + j] = (short) Math.min(d[iRow + j], dik + d[kRow + j]);
+                    }
+                    continue;
+                }
+                for (int j = j0; j < j1; j++) {
+                    int dkj = d[kRow + j];
+                    if (dkj != INF) {
+                        int sum = dik + dkj;
+                        if (sum < d[iRow + j]) {
+                            d[iRow + j] = (short) Math.max(sum, Short.MIN_VALUE);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
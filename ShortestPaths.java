@@ -0,0 +1,101 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// All-pairs result: the row-major distance matrix plus the successor matrix
+// filled in during the same relaxation pass.
+public class ShortestPaths {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    private final int[] dist;
+    private final int n;
+    private final NextHopMatrix next;
+
+    public ShortestPaths(int[] dist, int n, NextHopMatrix next) {
+        BlockedFloydWarshall.checkSize(dist, n);
+        if (next.size() != n) {
+            throw new IllegalArgumentException("Successor matrix is " + next.size() + "x" + next.size() + ", expected " + n);
+        }
+        this.dist = dist;
+        this.n = n;
+        this.next = next;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int distance(int u, int v) {
+        return dist[u * n + v];
+    }
+
+    public boolean hasPath(int u, int v) {
+        return next.get(u, v) != NextHopMatrix.NONE;
+    }
+
+    public int[] distances() {
+        return dist;
+    }
+
+    public NextHopMatrix nextHops() {
+        return next;
+    }
+
+    // Vertices of a shortest u -> v path, u and v included; empty when v is unreachable.
+    public PathIterator path(int u, int v) {
+        return new PathIterator(next, u, v);
+    }
+
+    public int[] pathArray(int u, int v) {
+        int[] buf = new int[n];
+        int len = 0;
+        for (PathIterator it = path(u, v); it.hasNext(); ) {
+            buf[len++] = it.nextInt();
+        }
+        return Arrays.copyOf(buf, len);
+    }
+
+    // Walks the successor matrix lazily; one object per query, no boxing.
+    public static final class PathIterator implements PrimitiveIterator.OfInt {
+        private final NextHopMatrix next;
+        private final int target;
+        private int current;
+        private int remaining;
+
+        PathIterator(NextHopMatrix next, int u, int v) {
+            this.next = next;
+            this.target = v;
+            this.current = next.get(u, v) == NextHopMatrix.NONE ? NextHopMatrix.NONE : u;
+            // A simple path has at most n vertices. Needing more, or running into a
+            // missing hop, means the successor matrix is corrupt (a zero-weight loop,
+            // say), and the walk throws instead of returning a path that stops short.
+            this.remaining = next.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != NextHopMatrix.NONE;
+        }
+
+        @Override
+        public int nextInt() {
+            if (current == NextHopMatrix.NONE) {
+                throw new NoSuchElementException();
+            }
+            int vertex = current;
+            if (vertex == target) {
+                current = NextHopMatrix.NONE;
+                return vertex;
+            }
+            if (--remaining == 0) {
+                throw new IllegalStateException("Successor matrix has no simple path from vertex " + vertex
+                        + " to " + target + " within " + next.size() + " vertices");
+            }
+            current = next.get(vertex, target);
+            if (current == NextHopMatrix.NONE) {
+                throw new IllegalStateException("Successor matrix has no hop from vertex " + vertex + " to " + target);
+            }
+            return vertex;
+        }
+    }
+}
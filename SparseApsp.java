@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// All-pairs shortest paths for sparse graphs: Dijkstra from every source over a
+// CsrGraph, O(n * m log n) instead of O(n^3). Negative edges are handled with
+// Johnson's reweighting (Bellman-Ford potentials first). Sources are split into
+// chunks that run in parallel on a ForkJoinPool, each with its own heap.
+// Results match floydWarshall on the equivalent dense matrix.
+public class SparseApsp {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    public SparseApsp() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SparseApsp(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+    }
+
+    public SparseApsp(ForkJoinPool pool) {
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    public int[][] floydWarshall(int[][] graph) {
+        int n = graph.length;
+        return BlockedFloydWarshall.toMatrix(shortestPaths(CsrGraph.fromMatrix(graph)), n);
+    }
+
+    // Row-major n x n distances.
+    public int[] shortestPaths(CsrGraph g) {
+        int n = g.n;
+        int[] dist = new int[n * n];
+        int[] potential = g.hasNegativeWeight() ? potentials(g) : null;
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int s0 = 0; s0 < n; s0 += SOURCES_PER_TASK) {
+                    int from = s0;
+                    int to = Math.min(s0 + SOURCES_PER_TASK, n);
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        IntMinHeap heap = new IntMinHeap(n);
+                        for (int s = from; s < to; s++) {
+                            dijkstra(g, potential, s, dist, heap);
+                        }
+                    }));
+                }
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+        return dist;
+    }
+
+    private static void dijkstra(CsrGraph g, int[] potential, int s, int[] dist, IntMinHeap heap) {
+        int n = g.n;
+        int row = s * n;
+        int[] offsets = g.offsets;
+        int[] targets = g.targets;
+        int[] weights = g.weights;
+        Arrays.fill(dist, row, row + n, INF);
+        dist[row + s] = 0;
+        heap.push(s, 0);
+        while (!heap.isEmpty()) {
+            int d = heap.minKey();
+            int x = heap.poll();
+            int hx = potential == null ? 0 : potential[x];
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                int t = targets[e];
+                int w = potential == null ? weights[e] : weights[e] + hx - potential[t];
+                int nd = d + w;
+                if (nd < dist[row + t]) {
+                    dist[row + t] = nd;
+                    heap.push(t, nd);
+                }
+            }
+        }
+        if (potential != null) {
+            int hs = potential[s];
+            for (int t = 0; t < n; t++) {
+                if (dist[row + t] != INF) dist[row + t] += potential[t] - hs;
+            }
+        }
+        // Diagonal as Floyd-Warshall leaves it: the self-loop or the cheapest closed walk.
+        int self = g.selfLoops[s];
+        for (int x = 0; x < n; x++) {
+            int dx = dist[row + x];
+            if (x == s || dx == INF) continue;
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                if (targets[e] == s && dx + weights[e] < self) self = dx + weights[e];
+            }
+        }
+        dist[row + s] = self;
+    }
+
+    // Bellman-Ford from a virtual source joined to every vertex by a 0 edge.
+    static int[] potentials(CsrGraph g) {
+        int n = g.n;
+        for (int v = 0; v < n; v++) {
+            if (g.selfLoops[v] < 0) throw new NegativeCycleException(v, new int[] {v});
+        }
+        int[] h = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        int last = -1;
+        for (int round = 0; round <= n; round++) {
+            last = -1;
+            for (int x = 0; x < n; x++) {
+                for (int e = g.offsets[x]; e < g.offsets[x + 1]; e++) {
+                    int t = g.targets[e];
+                    if (h[x] + g.weights[e] < h[t]) {
+                        h[t] = h[x] + g.weights[e];
+                        parent[t] = x;
+                        last = t;
+                    }
+                }
+            }
+            if (last < 0) return h;
+        }
+        throw new NegativeCycleException(last, parentCycle(parent, last, n));
+    }
+
+    // Still relaxing after n rounds: n parent steps from last land on the cycle.
+    private static int[] parentCycle(int[] parent, int last, int n) {
+        int v = last;
+        for (int i = 0; i < n && v >= 0; i++) {
+            v = parent[v];
+        }
+        if (v < 0) return new int[0];
+        int len = 1;
+        for (int x = parent[v]; x != v; x = parent[x]) {
+            len++;
+        }
+        int[] cycle = new int[len];
+        int x = v;
+        for (int i = len - 1; i >= 0; i--) {
+            cycle[i] = x;
+            x = parent[x];
+        }
+        return cycle;
+    }
+
+    // Only shuts down a pool this instance created itself.
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+// Undirected distance matrix that stores only the upper triangle, diagonal
+// included, packed row by row: row i holds columns [i, n) starting at
+// offset(i). get(i, j) and get(j, i) read the same cell, and so do the two
+// set calls. n (n + 1) / 2 cells instead of n * n.
+public class SymmetricDistanceMatrix implements DistanceMatrix {
+    private final int[] cells;
+    private final int n;
+
+    public SymmetricDistanceMatrix(int n) {
+        if (n < 0 || (long) n * (n + 1) / 2 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported size: " + n);
+        }
+        this.n = n;
+        this.cells = new int[n * (n + 1) / 2];
+        Arrays.fill(cells, INF);
+    }
+
+    // Each unordered pair takes the cheaper of graph[i][j] and graph[j][i], so an
+    // edge given in either direction (or both) is usable both ways.
+    public static SymmetricDistanceMatrix of(int[] graph, int n) {
+        BlockedFloydWarshall.checkSize(graph, n);
+        SymmetricDistanceMatrix m = new SymmetricDistanceMatrix(n);
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                m.cells[c++] = Math.min(graph[i * n + j], graph[j * n + i]);
+            }
+        }
+        return m;
+    }
+
+    public static SymmetricDistanceMatrix of(int[][] graph) {
+        return of(BlockedFloydWarshall.flatten(graph), graph.length);
+    }
+
+    // Packed storage, used as-is by SymmetricFloydWarshall.
+    int[] cells() {
+        return cells;
+    }
+
+    // Index of (i, i) in the packed array; (i, j) for j >= i is offset(i) + j - i.
+    int offset(int i) {
+        return i * n - i * (i - 1) / 2;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return i <= j ? cells[offset(i) + j - i] : cells[offset(j) + i - j];
+    }
+
+    @Override
+    public void set(int i, int j, int value) {
+        if (i <= j) {
+            cells[offset(i) + j - i] = value;
+        } else {
+            cells[offset(j) + i - j] = value;
+        }
+    }
+
+    // Expands to full rows; the part left of the diagonal is read down the columns.
+    @Override
+    public void readRows(int row, int count, int[] dst, int off) {
+        for (int r = row; r < row + count; r++) {
+            int out = off + (r - row) * n;
+            for (int j = 0; j < r; j++) {
+                dst[out + j] = cells[offset(j) + r - j];
+            }
+            System.arraycopy(cells, offset(r), dst, out + r, n - r);
+        }
+    }
+
+    // Full rows in; every cell is written, so the input should itself be symmetric.
+    @Override
+    public void writeRows(int row, int count, int[] src, int off) {
+        for (int r = row; r < row + count; r++) {
+            int in = off + (r - row) * n;
+            for (int j = 0; j < r; j++) {
+                cells[offset(j) + r - j] = src[in + j];
+            }
+            System.arraycopy(src, in + r, cells, offset(r), n - r);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+// Floyd-Warshall for undirected graphs over a SymmetricDistanceMatrix: half the
+// memory of the dense engines and each unordered pair relaxed once per pivot.
+//
+// Rounds work like OutOfCoreFloydWarshall. The pivot rows [k0, k1) are expanded
+// into a full-width strip and run through their own pivots, then written back.
+// Every other row i then relaxes only its packed segment [i, n) against the
+// strip. Its distance to pivot k is read from its own segment when i < k, and
+// from the strip otherwise. Any negative edge makes a negative cycle here (u, v,
+// u), and is reported as soon as a diagonal cell goes negative.
+public class SymmetricFloydWarshall {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    public static final int DEFAULT_STRIP_HEIGHT = 64;
+
+    private final int stripHeight;
+    private final MinPlusKernel kernel;
+
+    public SymmetricFloydWarshall() {
+        this(DEFAULT_STRIP_HEIGHT, MinPlusKernel.best());
+    }
+
+    public SymmetricFloydWarshall(int stripHeight, MinPlusKernel kernel) {
+        if (stripHeight < 1) {
+            throw new IllegalArgumentException("Strip height must be positive: " + stripHeight);
+        }
+        this.stripHeight = stripHeight;
+        this.kernel = kernel;
+    }
+
+    public void floydWarshall(SymmetricDistanceMatrix matrix) {
+        int n = matrix.size();
+        ApspRunEvent event = ApspRunEvent.start("SymmetricFloydWarshall", n, stripHeight);
+        boolean completed = false;
+        try {
+            rounds(matrix, n);
+            completed = true;
+        } finally {
+            event.finish(completed);
+        }
+    }
+
+    private void rounds(SymmetricDistanceMatrix matrix, int n) {
+        int[] d = matrix.cells();
+        for (int i = 0; i < n; i++) {
+            checkDiagonal(d[matrix.offset(i)], i);
+        }
+        int h = Math.min(stripHeight, n);
+        int[] strip = new int[h * n];
+
+        for (int k0 = 0; k0 < n; k0 += h) {
+            int k1 = Math.min(k0 + h, n);
+            int rows = k1 - k0;
+            ApspPivotBatchEvent batch = new ApspPivotBatchEvent();
+            batch.begin();
+            long cells = 0;
+            int skipped = 0;
+            int improved = 0;
+            matrix.readRows(k0, rows, strip, 0);
+            for (int k = k0; k < k1; k++) {
+                int kRow = (k - k0) * n;
+                for (int r = 0; r < rows; r++) {
+                    int row = r * n;
+                    int dik = strip[row + k];
+                    if (dik == INF) {
+                        if (ApspMetrics.ENABLED) skipped++;
+                        continue;
+                    }
+                    improved += kernel.relaxRow(strip, row, kRow, dik, 0, n);
+                    if (ApspMetrics.ENABLED) cells += n;
+                }
+            }
+            for (int r = 0; r < rows; r++) {
+                checkDiagonal(strip[r * n + k0 + r], k0 + r);
+            }
+            matrix.writeRows(k0, rows, strip, 0);
+
+            for (int i = 0; i < n; i++) {
+                if (i >= k0 && i < k1) continue;
+                int base = matrix.offset(i) - i; // d[base + j] is (i, j) for j >= i
+                for (int k = k0; k < k1; k++) {
+                    int kRow = (k - k0) * n;
+                    int dik = i < k ? d[base + k] : strip[kRow + i];
+                    if (dik == INF) {
+                        if (ApspMetrics.ENABLED) skipped++;
+                        continue;
+                    }
+                    improved += kernel.relaxRow(d, base, strip, kRow, dik, i, n);
+                    if (ApspMetrics.ENABLED) cells += n - i;
+                }
+                checkDiagonal(d[base + i], i);
+            }
+            if (ApspMetrics.ENABLED) ApspMetrics.tile(cells, skipped, improved);
+            batch.finish(k0, k1, n);
+        }
+    }
+
+    private static void checkDiagonal(int dii, int i) {
+        if (dii < 0) {
+            throw new NegativeCycleException(i, new int[0]);
+        }
+    }
+}
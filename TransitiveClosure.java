@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Warshall's algorithm over ReachabilityMatrix rows: for each pivot k, every row
+// with bit k set ORs in row k, 64 columns per long. Pivots go in rounds of 64,
+// one word column. The 64 pivot rows are closed over each other first, and then
+// every other row is streamed once per round instead of once per pivot. That
+// second phase splits the rows into chunks that run in parallel on a
+// ForkJoinPool, since it only reads the pivot rows.
+public class TransitiveClosure {
+    private static final int ROWS_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    public TransitiveClosure() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public TransitiveClosure(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+    }
+
+    public TransitiveClosure(ForkJoinPool pool) {
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    public ReachabilityMatrix transitiveClosure(int[] graph, int n) {
+        ReachabilityMatrix m = ReachabilityMatrix.fromGraph(graph, n);
+        close(m);
+        return m;
+    }
+
+    public ReachabilityMatrix transitiveClosure(CsrGraph g) {
+        ReachabilityMatrix m = ReachabilityMatrix.fromGraph(g);
+        close(m);
+        return m;
+    }
+
+    // In place.
+    public void close(ReachabilityMatrix m) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for (int kw = 0; kw < m.words; kw++) {
+                    round(m.bits, m.words, m.n, kw);
+                }
+            }
+        });
+    }
+
+    private static void round(long[] bits, int words, int n, int kw) {
+        int k0 = kw << 6;
+        int k1 = Math.min(k0 + 64, n);
+        for (int r = k0; r < k1; r++) {
+            closeRow(bits, words, r, kw, k0);
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i0 = 0; i0 < n; i0 += ROWS_PER_TASK) {
+            int from = i0;
+            int to = Math.min(i0 + ROWS_PER_TASK, n);
+            tasks.add(ForkJoinTask.adapt(() -> {
+                for (int i = from; i < to; i++) {
+                    if (i < k0 || i >= k1) closeRow(bits, words, i, kw, k0);
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    // ORs pivot row k0 + b into row i for every bit b of word kw, including bits
+    // the ORs themselves turn on, until the word stops changing. Row i then holds
+    // everything reachable through intermediates below k0 + 64, whether or not the
+    // pivot rows it read were closed yet.
+    private static void closeRow(long[] bits, int words, int i, int kw, int k0) {
+        int row = i * words;
+        long done = 0;
+        long pending;
+        while ((pending = bits[row + kw] & ~done) != 0) {
+            long bit = pending & -pending;
+            done |= bit;
+            int kRow = (k0 + Long.numberOfTrailingZeros(bit)) * words;
+            if (kRow == row) continue;
+            for (int w = 0; w < words; w++) {
+                bits[row + w] |= bits[kRow + w];
+            }
+        }
+    }
+
+    // Only shuts down a pool this instance created itself.
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+// Tile schedule shared by the short, long, float and double engines; the same
+// three-phase rounds as BlockedFloydWarshall. Subclasses supply the relax over
+// one tile of their own array type, so the generic parameter is only seen once
+// per tile and never inside the inner loop.
+abstract class TypedFloydWarshall<A> implements ApspEngine<A> {
+    private final int tileSize;
+
+    TypedFloydWarshall(int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        this.tileSize = tileSize;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    @Override
+    public void floydWarshall(A dist, int n) {
+        if (n < 0 || length(dist) != n * n) {
+            throw new IllegalArgumentException("Expected " + n + "x" + n + " cells but got " + length(dist));
+        }
+        checkDiagonal(dist, n);
+        int blocks = (n + tileSize - 1) / tileSize;
+        for (int kb = 0; kb < blocks; kb++) {
+            int k0 = kb * tileSize;
+            int k1 = Math.min(k0 + tileSize, n);
+
+            relax(dist, n, k0, k1, k0, k1, k0, k1);
+
+            for (int b = 0; b < blocks; b++) {
+                if (b == kb) continue;
+                int b0 = b * tileSize;
+                int b1 = Math.min(b0 + tileSize, n);
+                relax(dist, n, k0, k1, k0, k1, b0, b1); // pivot row
+                relax(dist, n, k0, k1, b0, b1, k0, k1); // pivot column
+            }
+
+            for (int ib = 0; ib < blocks; ib++) {
+                if (ib == kb) continue;
+                int i0 = ib * tileSize;
+                int i1 = Math.min(i0 + tileSize, n);
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb == kb) continue;
+                    int j0 = jb * tileSize;
+                    relax(dist, n, k0, k1, i0, i1, j0, Math.min(j0 + tileSize, n));
+                }
+            }
+            checkDiagonal(dist, n);
+        }
+    }
+
+    private void checkDiagonal(A dist, int n) {
+        int v = negativeDiagonal(dist, n);
+        if (v >= 0) {
+            throw new NegativeCycleException(v, new int[0]);
+        }
+    }
+
+    abstract int length(A dist);
+
+    // First i with dist[i][i] < 0, or -1.
+    abstract int negativeDiagonal(A dist, int n);
+
+    // Relaxes rows [i0, i1) x columns [j0, j1) through pivots [k0, k1).
+    abstract void relax(A d, int n, int k0, int k1, int i0, int i1, int j0, int j1);
+}
@@ -0,0 +1,47 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Needs --add-modules jdk.incubator.vector to compile and run; MinPlusKernel.best()
+// only loads this class when the module is present.
+// Whole lanes are added and compared at once. INF lanes of row k are masked out
+// instead of branched on, so results match the scalar loop cell for cell.
+final class VectorMinPlusKernel implements MinPlusKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int relaxRow(int[] d, int row, int kRow, int dik, int from, int to) {
+        return relaxRow(d, row, d, kRow, dik, from, to);
+    }
+
+    @Override
+    public int relaxRow(int[] d, int row, int[] pivot, int kRow, int dik, int from, int to) {
+        int j = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        // Lowered cells are counted per lane and summed once per row.
+        IntVector lowered = IntVector.zero(SPECIES);
+        for (; j < upper; j += SPECIES.length()) {
+            IntVector dkj = IntVector.fromArray(SPECIES, pivot, kRow + j);
+            IntVector cur = IntVector.fromArray(SPECIES, d, row + j);
+            IntVector via = dkj.add(dik);
+            VectorMask<Integer> better = dkj.compare(VectorOperators.NE, INF).and(via.compare(VectorOperators.LT, cur));
+            cur.blend(via, better).intoArray(d, row + j);
+            if (ApspMetrics.ENABLED) lowered = lowered.sub((IntVector) better.toVector()); // true lanes are -1
+        }
+        int improved = ApspMetrics.ENABLED ? lowered.reduceLanes(VectorOperators.ADD) : 0;
+        for (; j < to; j++) {
+            int dkj = pivot[kRow + j];
+            if (dkj != INF && dik + dkj < d[row + j]) {
+                d[row + j] = dik + dkj;
+                if (ApspMetrics.ENABLED) improved++;
+            }
+        }
+        return improved;
+    }
+
+    @Override
+    public String toString() {
+        return "VectorMinPlusKernel[" + SPECIES + "]";
+    }
+}
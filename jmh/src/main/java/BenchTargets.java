@@ -0,0 +1,81 @@
+import bench.ApspOps;
+
+// Engines under benchmark. "reference" is BSCS2_RODRIGO_fw with its explicit
+// compare; "math-min" is the Math.min loop the GUI used to carry in its own
+// copy of that class, kept here so both inner loops can be compared.
+public class BenchTargets implements ApspOps {
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final BSCS2_RODRIGO_fw fw = new BSCS2_RODRIGO_fw();
+    private final String engine;
+    private final BlockedFloydWarshall blocked;
+    private final SparseApsp sparse;
+    private final ApspSolver solver;
+
+    private BenchTargets(String engine) {
+        this.engine = engine;
+        this.blocked = engine.equals("parallel") ? new ParallelFloydWarshall()
+                : engine.equals("blocked-scalar") ? new BlockedFloydWarshall(BlockedFloydWarshall.DEFAULT_TILE_SIZE, ScalarMinPlusKernel.INSTANCE)
+                : new BlockedFloydWarshall();
+        this.sparse = engine.equals("sparse") ? new SparseApsp() : null;
+        this.solver = engine.equals("auto") ? new ApspSolver() : null;
+    }
+
+    public static ApspOps forEngine(String engine) {
+        return new BenchTargets(engine);
+    }
+
+    @Override
+    public int[][] floydWarshall(int[][] graph) {
+        switch (engine) {
+            case "reference":
+                return fw.floydWarshall(graph);
+            case "math-min":
+                return mathMinFloydWarshall(graph);
+            case "sparse":
+                return sparse.floydWarshall(graph);
+            case "auto":
+                return solver.floydWarshall(graph);
+            default:
+                return blocked.floydWarshall(graph);
+        }
+    }
+
+    @Override
+    public int[][] addNode(int[][] graph) {
+        return fw.addNode(graph);
+    }
+
+    @Override
+    public int[][] removeLastNode(int[][] graph) {
+        return fw.removeLastNode(graph);
+    }
+
+    @Override
+    public String formatMatrix(int[][] matrix) {
+        return fw.formatMatrix(matrix);
+    }
+
+    private static int[][] mathMinFloydWarshall(int[][] graph) {
+        int n = graph.length;
+        int[][] dist = new int[n][n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                dist[i][j] = graph[i][j];
+            }
+        }
+
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (dist[i][k] != INF && dist[k][j] != INF) {
+                        dist[i][j] = Math.min(dist[i][j], dist[i][k] + dist[k][j]);
+                    }
+                }
+            }
+        }
+
+        return dist;
+    }
+}
@@ -0,0 +1,23 @@
+package bench;
+
+// The engine classes sit in the default package, which named packages cannot
+// import, and JMH refuses benchmarks in the default package. BenchTargets
+// (default package) implements this interface; it is looked up reflectively
+// once per trial, and every measured call is a plain interface call.
+public interface ApspOps {
+    int[][] floydWarshall(int[][] graph);
+
+    int[][] addNode(int[][] graph);
+
+    int[][] removeLastNode(int[][] graph);
+
+    String formatMatrix(int[][] matrix);
+
+    static ApspOps load(String engine) {
+        try {
+            return (ApspOps) Class.forName("BenchTargets").getMethod("forEngine", String.class).invoke(null, engine);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load engine " + engine, e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+public class FloydWarshallBenchmark {
+    @Param({"64", "256", "1024", "4096", "8192"})
+    public int size;
+
+    @Param({"0.01", "0.1", "0.5", "1.0"})
+    public double density;
+
+    @Param({"uniform", "unit", "wide"})
+    public String weights;
+
+    @Param({"reference", "math-min", "blocked-scalar", "blocked", "parallel", "sparse", "auto"})
+    public String engine;
+
+    private ApspOps ops;
+    private int[][] graph;
+
+    @Setup
+    public void setUp() {
+        ops = ApspOps.load(engine);
+        graph = GraphGenerator.generate(size, density, weights);
+    }
+
+    @Benchmark
+    public int[][] floydWarshall() {
+        return ops.floydWarshall(graph);
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import java.util.Random;
+
+// Seeded random adjacency matrices, so every run benchmarks the same inputs.
+public final class GraphGenerator {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    private static final long SEED = 0x5EEDL;
+
+    private GraphGenerator() {
+    }
+
+    // density is the fraction of off-diagonal cells holding an edge.
+    // weights: "uniform" 1..100, "unit" 1..4 (hop counts), "wide" 1..1,000,000.
+    public static int[][] generate(int n, double density, String weights) {
+        Random random = new Random(SEED ^ n);
+        int bound;
+        switch (weights) {
+            case "uniform":
+                bound = 100;
+                break;
+            case "unit":
+                bound = 4;
+                break;
+            case "wide":
+                bound = 1_000_000;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown weight distribution: " + weights);
+        }
+        int[][] graph = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    graph[i][j] = 0;
+                } else {
+                    graph[i][j] = random.nextDouble() < density ? 1 + random.nextInt(bound) : INF;
+                }
+            }
+        }
+        return graph;
+    }
+}
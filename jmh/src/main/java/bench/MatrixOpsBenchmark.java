@@ -0,0 +1,64 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MatrixOpsBenchmark {
+    @Param({"64", "256", "1024", "4096", "8192"})
+    public int size;
+
+    @Param({"0.01", "0.1", "1.0"})
+    public double density;
+
+    private ApspOps ops;
+    private int[][] graph;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() {
+        ops = ApspOps.load("reference");
+        graph = GraphGenerator.generate(size, density, "uniform");
+        // formatMatrix prints the whole matrix; keep that cost but not the console flood.
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public int[][] addNode() {
+        return ops.addNode(graph);
+    }
+
+    @Benchmark
+    public int[][] removeLastNode() {
+        return ops.removeLastNode(graph);
+    }
+
+    @Benchmark
+    public String formatMatrix() {
+        return ops.formatMatrix(graph);
+    }
+}